@@ -0,0 +1,75 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.imperialbookbinding.app.AppApplication;
+
+/**
+ * Boots the application against a throwaway SQLite file so benchmarks never
+ * touch {@code data/billing.db}. Close it from the benchmark's
+ * {@code @TearDown}; the database file is deleted with it.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final Path database;
+
+    private BenchmarkContext(ConfigurableApplicationContext context, Path database) {
+        this.context = context;
+        this.database = database;
+    }
+
+    /**
+     * Starts the application, by default without a web server.
+     * {@code properties} are {@code key=value} pairs and replace the
+     * defaults with the same key.
+     */
+    static BenchmarkContext start(String... properties) throws IOException {
+        Path database = Files.createTempFile("imperial-bench-", ".db");
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("spring.datasource.url", "jdbc:sqlite:" + database + "?busy_timeout=5000");
+        args.put("spring.jpa.hibernate.ddl-auto", "create");
+        args.put("spring.jpa.show-sql", "false");
+        args.put("spring.main.banner-mode", "off");
+        args.put("spring.main.web-application-type", "none");
+        args.put("logging.level.root", "WARN");
+        args.put("app.pdf.prerender.enabled", "false");
+        for (String property : properties) {
+            int eq = property.indexOf('=');
+            args.put(property.substring(0, eq), property.substring(eq + 1));
+        }
+        SpringApplication app = new SpringApplication(AppApplication.class);
+        return new BenchmarkContext(app.run(args.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new)), database);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    ApplicationContext applicationContext() {
+        return context;
+    }
+
+    /** The port a context started with a web server listens on. */
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        Files.deleteIfExists(database);
+        Files.deleteIfExists(Path.of(database + "-wal"));
+        Files.deleteIfExists(Path.of(database + "-shm"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.service.CustomerService;
+import com.imperialbookbinding.app.service.InvoiceService;
+
+/**
+ * End-to-end {@code createInvoice}: number, invoice row, batched lines and
+ * the ledger update, committed once per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateInvoiceBenchmark {
+
+    @Param({"5"})
+    public int lines;
+
+    private BenchmarkContext context;
+    private InvoiceService invoiceService;
+    private CreateInvoiceRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        invoiceService = context.bean(InvoiceService.class);
+
+        Customer customer = new Customer();
+        customer.setName("Benchmark Binders");
+        customer = context.bean(CustomerService.class).create(customer);
+
+        request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+            item.description = "Perfect binding #" + i;
+            item.quantity = 2;
+            item.rate = 12000L;
+            request.items.add(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public Invoice createInvoice() {
+        return invoiceService.createInvoice(request);
+    }
+}
@@ -0,0 +1,84 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.imperialbookbinding.app.dto.CustomerSuggestion;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.service.CustomerTypeahead;
+import com.imperialbookbinding.app.support.DatasetGenerator;
+
+/**
+ * Typeahead lookups for ten suggestions, from a one-letter prefix that
+ * matches thousands of keys to a phone prefix, plus the cost of indexing
+ * one new customer. {@code rebuild} is the startup load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerTypeaheadBenchmark {
+
+    @Param({"10000", "100000"})
+    public int customers;
+
+    @Param({"s", "sharma", "priya k", "98765"})
+    public String query;
+
+    private BenchmarkContext context;
+    private CustomerTypeahead typeahead;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        typeahead = context.bean(CustomerTypeahead.class);
+        new DatasetGenerator(context.applicationContext())
+                .generate(new DatasetGenerator.Volumes(customers, 0, 0));
+        typeahead.rebuild();
+        nextId = customers * 10L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerSuggestion> suggest() {
+        return typeahead.suggest(query, 10);
+    }
+
+    @Benchmark
+    public int add() {
+        Customer customer = new Customer();
+        customer.setId(nextId++);
+        customer.setName("Kavya Menon Book House");
+        customer.setPhone("9" + nextId);
+        typeahead.add(customer);
+        return typeahead.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rebuild() {
+        typeahead.rebuild();
+        return typeahead.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.CustomerWithBalance;
+import com.imperialbookbinding.app.service.CustomerService;
+
+/**
+ * The unpaged customer list with balances, as the customers screen loads it.
+ * Every other customer gets a ledger row so the join sees both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomersWithBalanceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int customers;
+
+    private BenchmarkContext context;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        customerService = context.bean(CustomerService.class);
+
+        JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> ids = IntStream.rangeClosed(1, customers).boxed().toList();
+        context.bean(TransactionTemplate.class).executeWithoutResult(status -> {
+            jdbc.batchUpdate(
+                    "INSERT INTO customers (id, name, email, phone, address, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                    ids, 1000, (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setString(2, "Customer " + id);
+                        ps.setString(3, "customer" + id + "@example.com");
+                        ps.setString(4, "98" + String.format("%08d", id));
+                        ps.setString(5, id + " Binding Street");
+                        ps.setTimestamp(6, now);
+                    });
+            jdbc.batchUpdate(
+                    "INSERT INTO customer_balances (customer_id, total_invoiced, total_paid, outstanding, revision) VALUES (?, ?, ?, ?, 1)",
+                    ids.stream().filter(id -> id % 2 == 0).toList(), 1000, (ps, id) -> {
+                        long invoiced = 50000 + id % 97 * 100;
+                        long paid = id % 4 == 0 ? invoiced : 10000;
+                        ps.setLong(1, id);
+                        ps.setLong(2, invoiced);
+                        ps.setLong(3, paid);
+                        ps.setLong(4, invoiced - paid);
+                    });
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerWithBalance> customersWithBalance() {
+        return customerService.getCustomersWithBalance();
+    }
+}
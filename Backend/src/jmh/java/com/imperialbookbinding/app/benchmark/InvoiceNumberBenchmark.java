@@ -0,0 +1,61 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.service.InvoiceNumberService;
+
+/**
+ * {@code nextInvoiceNumber} in its own transaction, alone and with four
+ * callers racing for the sequence row and the single writer connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceNumberBenchmark {
+
+    private BenchmarkContext context;
+    private InvoiceNumberService numberService;
+    private TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        numberService = context.bean(InvoiceNumberService.class);
+        tx = context.bean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String uncontended() {
+        return tx.execute(status -> numberService.nextInvoiceNumber());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String contended() {
+        return tx.execute(status -> numberService.nextInvoiceNumber());
+    }
+}
@@ -0,0 +1,96 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.service.InvoicePdfService;
+
+/**
+ * Rendering cost by invoice size. {@code render} is the in-memory path used
+ * by downloads and the export; {@code generate} adds the archive write to
+ * {@code data/invoices/} under the benchmark working directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoicePdfBenchmark {
+
+    @Param({"1", "50", "1000"})
+    public int lines;
+
+    private BenchmarkContext context;
+    private InvoicePdfService pdfService;
+    private Invoice invoice;
+    private List<InvoiceItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        pdfService = context.bean(InvoicePdfService.class);
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName("Benchmark Binders");
+        customer.setAddress("12 Press Road");
+
+        invoice = new Invoice();
+        invoice.setId(1L);
+        invoice.setInvoiceNumber("IB-BENCH-" + lines);
+        invoice.setCustomer(customer);
+        invoice.setIssueDate(LocalDate.now());
+
+        items = new ArrayList<>(lines);
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setInvoice(invoice);
+            item.setDescription("Case binding, cloth cover #" + i);
+            item.setQuantity(1 + i % 12);
+            item.setRate(4500 + i % 7 * 100);
+            item.setAmount(item.getQuantity() * item.getRate());
+            subtotal += item.getAmount();
+            items.add(item);
+        }
+        invoice.setSubtotal(subtotal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(Path.of("data/invoices", invoice.getInvoiceNumber() + ".pdf"));
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] render() throws Exception {
+        return pdfService.renderInvoicePdf(invoice, items, 0, invoice.getSubtotal());
+    }
+
+    @Benchmark
+    public String generate() throws Exception {
+        return pdfService.generateInvoicePdf(invoice, items, 0, invoice.getSubtotal());
+    }
+}
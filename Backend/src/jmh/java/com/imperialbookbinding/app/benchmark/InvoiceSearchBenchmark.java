@@ -0,0 +1,69 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.imperialbookbinding.app.dto.InvoiceSearchHit;
+import com.imperialbookbinding.app.dto.SearchIndexReport;
+import com.imperialbookbinding.app.service.InvoiceSearchService;
+import com.imperialbookbinding.app.support.DatasetGenerator;
+
+/**
+ * First page of invoice search over a generated history. "thesis" matches
+ * one line description in ten, "kapoor urgent" pairs a customer name with
+ * a note, and "th" is a short prefix that expands to several terms. Setup
+ * prints how long a full index rebuild takes at that size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class InvoiceSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int invoices;
+
+    @Param({"thesis", "gold foil", "kapoor urgent", "th"})
+    public String query;
+
+    private BenchmarkContext context;
+    private InvoiceSearchService searchService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        searchService = context.bean(InvoiceSearchService.class);
+
+        new DatasetGenerator(context.applicationContext())
+                .generate(new DatasetGenerator.Volumes(invoices / 20, invoices, 0));
+        SearchIndexReport rebuild = searchService.rebuild();
+        System.out.printf("%nRebuilt the search index over %d invoices in %d ms%n",
+                rebuild.invoicesIndexed(), rebuild.elapsedMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public List<InvoiceSearchHit> search() {
+        return searchService.search(query, 0, 20);
+    }
+}
@@ -0,0 +1,89 @@
+package com.imperialbookbinding.app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.imperialbookbinding.app.support.DatasetGenerator;
+
+/**
+ * Nine balance listings to one payment, sent over HTTP by 64 concurrent
+ * callers to the running server. {@code default} is the stock setup:
+ * Tomcat's platform-thread pool and no admission control. {@code virtual}
+ * is the {@code virtual} profile: virtual threads (JDK 21 and later only;
+ * below that the profile measures admission control alone) with callers
+ * queued for the database pools. Sample mode reports the latency
+ * percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class MixedLoadBenchmark {
+
+    @Param({"default", "virtual"})
+    public String profile;
+
+    private BenchmarkContext context;
+    private HttpClient http;
+    private HttpRequest listing;
+    private HttpRequest payment;
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int calls;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(
+                "spring.main.web-application-type=servlet",
+                "server.port=0",
+                "spring.profiles.active=" + profile);
+        new DatasetGenerator(context.applicationContext())
+                .generate(new DatasetGenerator.Volumes(1000, 5000, 2000));
+
+        String base = "http://localhost:" + context.port();
+        http = HttpClient.newHttpClient();
+        listing = HttpRequest.newBuilder(URI.create(base + "/api/customers/with-balance")).build();
+        payment = HttpRequest.newBuilder(URI.create(base + "/api/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\": 1, \"amount\": 1.00}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public int request(Caller caller) throws Exception {
+        HttpRequest request = caller.calls++ % 10 == 0 ? payment : listing;
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
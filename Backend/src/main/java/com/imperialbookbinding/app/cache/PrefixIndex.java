@@ -0,0 +1,106 @@
+package com.imperialbookbinding.app.cache;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable sorted array of string keys, each pointing at a numeric id,
+ * for prefix lookups: a binary search finds the first key with the prefix
+ * and the matches follow it in key order. Adding or removing a key copies
+ * the arrays, which keeps readers lock-free; it suits indexes that are
+ * read far more often than written.
+ */
+public final class PrefixIndex {
+
+    public record Entry(String key, long id) {
+    }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    public static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new long[0]);
+
+    private final String[] keys;
+    private final long[] ids;
+
+    private PrefixIndex(String[] keys, long[] ids) {
+        this.keys = keys;
+        this.ids = ids;
+    }
+
+    public static PrefixIndex of(List<Entry> entries) {
+        Entry[] sorted = entries.toArray(Entry[]::new);
+        Arrays.sort(sorted, ORDER);
+        String[] keys = new String[sorted.length];
+        long[] ids = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            ids[i] = sorted[i].id();
+        }
+        return new PrefixIndex(keys, ids);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Passes the ids of keys starting with {@code prefix} to
+     * {@code visitor} in key order, until it returns {@code false}.
+     */
+    public void forEachMatch(String prefix, LongPredicate visitor) {
+        for (int i = lowerBound(prefix, Long.MIN_VALUE); i < keys.length && keys[i].startsWith(prefix); i++) {
+            if (!visitor.test(ids[i])) {
+                return;
+            }
+        }
+    }
+
+    public PrefixIndex with(String key, long id) {
+        int at = lowerBound(key, id);
+        if (at < keys.length && keys[at].equals(key) && ids[at] == id) {
+            return this;
+        }
+        String[] newKeys = new String[keys.length + 1];
+        long[] newIds = new long[ids.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(ids, 0, newIds, 0, at);
+        newKeys[at] = key;
+        newIds[at] = id;
+        System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+        System.arraycopy(ids, at, newIds, at + 1, ids.length - at);
+        return new PrefixIndex(newKeys, newIds);
+    }
+
+    public PrefixIndex without(String key, long id) {
+        int at = lowerBound(key, id);
+        if (at == keys.length || !keys[at].equals(key) || ids[at] != id) {
+            return this;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        long[] newIds = new long[ids.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(ids, 0, newIds, 0, at);
+        System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+        System.arraycopy(ids, at + 1, newIds, at, ids.length - at - 1);
+        return new PrefixIndex(newKeys, newIds);
+    }
+
+    /** The first position whose (key, id) is not below the given pair. */
+    private int lowerBound(String key, long id) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid].compareTo(key);
+            if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -2,7 +2,9 @@ package com.imperialbookbinding.app.config;
 
 
 import org.hibernate.dialect.DatabaseVersion;
+import org.hibernate.dialect.identity.IdentityColumnSupport;
 import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.community.dialect.identity.SQLiteIdentityColumnSupport;
 
 public class CustomSQLiteDialect extends SQLiteDialect {
 
@@ -19,4 +21,20 @@ public class CustomSQLiteDialect extends SQLiteDialect {
     public boolean supportsIfExistsBeforeTableName() {
         return true;
     }
+
+    /**
+     * Hibernate skips the identity type when the CREATE TABLE text built so
+     * far already contains it, so an id column that follows another
+     * {@code integer} column (invoice_items.quantity) came out untyped and
+     * never became a rowid alias. Upper case keeps the check from matching.
+     */
+    @Override
+    public IdentityColumnSupport getIdentityColumnSupport() {
+        return new SQLiteIdentityColumnSupport() {
+            @Override
+            public String getIdentityColumnString(int type) {
+                return "INTEGER";
+            }
+        };
+    }
 }
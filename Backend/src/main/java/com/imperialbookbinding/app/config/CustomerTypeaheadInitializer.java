@@ -0,0 +1,32 @@
+package com.imperialbookbinding.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.imperialbookbinding.app.service.CustomerTypeahead;
+
+/**
+ * Loads the customer typeahead before the first lookup needs it.
+ */
+@Component
+public class CustomerTypeaheadInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerTypeaheadInitializer.class);
+
+    private final CustomerTypeahead typeahead;
+
+    public CustomerTypeaheadInitializer(CustomerTypeahead typeahead) {
+        this.typeahead = typeahead;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        typeahead.rebuild();
+        log.info("Indexed {} customers for typeahead in {} ms",
+                typeahead.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
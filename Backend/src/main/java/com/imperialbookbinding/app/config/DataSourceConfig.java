@@ -0,0 +1,83 @@
+package com.imperialbookbinding.app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.imperialbookbinding.app.metrics.SqlProfiler;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * SQLite in WAL mode behind two pools: a single writer connection and a
+ * pool of query-only readers, so reads no longer queue behind writes.
+ * Transactions marked {@code readOnly = true} are served by a reader; a
+ * read that joins a write transaction stays on the writer's connection.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * The writer. Sized and tuned by the usual {@code spring.datasource.hikari.*}
+     * properties; only one connection may write to SQLite at a time anyway.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writerDataSource(DataSourceProperties properties) {
+        HikariDataSource writer = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        writer.setPoolName("sqlite-writer");
+        // WAL is recorded in the database file, so readers opened later see it too
+        writer.setConnectionInitSql("PRAGMA journal_mode = WAL");
+        return writer;
+    }
+
+    @Bean
+    public HikariDataSource readerDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.reader.pool-size:4}") int poolSize) {
+        HikariDataSource reader = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        reader.setPoolName("sqlite-reader");
+        reader.setMaximumPoolSize(poolSize);
+        reader.setMinimumIdle(1);
+        // Lets the driver accept setReadOnly() on an open connection
+        reader.addDataSourceProperty("jdbc.explicit_readonly", "true");
+        reader.setReadOnly(true);
+        reader.setConnectionInitSql("PRAGMA query_only = 1");
+        return reader;
+    }
+
+    /**
+     * Defers taking a real connection until the first statement, by which
+     * time the transaction manager has flagged the connection read-only and
+     * the proxy can pick the reader pool. With admission control on, each
+     * pool is fronted by a fair semaphore of the same size. Statements are
+     * timed for the {@link SqlProfiler} unless {@code app.sql.profiler.enabled}
+     * is false.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("writerDataSource") HikariDataSource writer,
+            @Qualifier("readerDataSource") HikariDataSource reader,
+            @Value("${app.datasource.admission.enabled:false}") boolean admission,
+            @Value("${app.sql.profiler.enabled:true}") boolean profiling,
+            SqlProfiler profiler) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(admission ? admit(writer) : writer);
+        proxy.setReadOnlyDataSource(admission ? admit(reader) : reader);
+        return profiling ? new SqlProfilingDataSource(proxy, profiler) : proxy;
+    }
+
+    private static DataSource admit(HikariDataSource pool) {
+        return new AdmissionControlDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+    }
+}
@@ -0,0 +1,34 @@
+package com.imperialbookbinding.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.imperialbookbinding.app.dto.SearchIndexReport;
+import com.imperialbookbinding.app.service.InvoiceSearchService;
+
+/**
+ * Creates the invoice search index on first start and rebuilds it when
+ * invoices were written without it, for example by an older version.
+ */
+@Component
+public class InvoiceSearchInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceSearchInitializer.class);
+
+    private final InvoiceSearchService searchService;
+
+    public InvoiceSearchInitializer(InvoiceSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SearchIndexReport report = searchService.prepare();
+        if (report != null) {
+            log.info("Indexed {} invoices for search in {} ms", report.invoicesIndexed(), report.elapsedMillis());
+        }
+    }
+}
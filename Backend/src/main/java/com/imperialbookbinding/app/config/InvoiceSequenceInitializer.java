@@ -0,0 +1,32 @@
+package com.imperialbookbinding.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.imperialbookbinding.app.service.InvoiceNumberService;
+import com.imperialbookbinding.app.service.InvoiceNumberService.YearSequence;
+
+/**
+ * Lines the in-memory invoice number counter up with the invoices already
+ * stored before the first invoice of this run is created.
+ */
+@Component
+public class InvoiceSequenceInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceSequenceInitializer.class);
+
+    private final InvoiceNumberService numberService;
+
+    public InvoiceSequenceInitializer(InvoiceNumberService numberService) {
+        this.numberService = numberService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        YearSequence sequence = numberService.reconcile();
+        log.info("Invoice numbers for {} resume after {}", sequence.year(), sequence.lastIssued());
+    }
+}
@@ -0,0 +1,34 @@
+package com.imperialbookbinding.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.imperialbookbinding.app.dto.LedgerReport;
+import com.imperialbookbinding.app.service.CustomerBalanceService;
+
+/**
+ * Backfills the balance ledger the first time the application starts
+ * against a database that already holds invoices or payments.
+ */
+@Component
+public class LedgerInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerInitializer.class);
+
+    private final CustomerBalanceService balanceService;
+
+    public LedgerInitializer(CustomerBalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (balanceService.needsInitialBuild()) {
+            LedgerReport report = balanceService.rebuild();
+            log.info("Built balance ledger for {} customers", report.customersChecked());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.imperialbookbinding.app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.imperialbookbinding.app.metrics.SqlProfileInterceptor;
+import com.imperialbookbinding.app.metrics.SqlProfiler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Profiles the SQL behind each API request. Pool wait times, Hibernate
+ * statistics and HTTP timings come from the actuator defaults.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer sqlProfiling(SqlProfiler profiler, MeterRegistry registry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(new SqlProfileInterceptor(profiler, registry))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+}
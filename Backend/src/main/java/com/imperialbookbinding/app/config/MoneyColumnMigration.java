@@ -0,0 +1,227 @@
+package com.imperialbookbinding.app.config;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Converts money columns written as REAL rupees by earlier versions to
+ * INTEGER paise. SQLite cannot change a column's type in place, so each
+ * affected table is rebuilt: created again from its own DDL with the money
+ * columns declared {@code bigint}, filled with the amounts rounded to the
+ * nearest paisa, swapped in, and re-indexed. A database already in paise,
+ * or an empty one, is left alone.
+ *
+ * <p>The rewrite cannot be undone, so it only runs when
+ * {@code app.money.migrate-columns=true}. It then copies the database file
+ * next to itself with {@code VACUUM INTO} and converts the tables in one
+ * transaction, before the EntityManagerFactory starts. Without the property
+ * a database that still holds rupees stops the application from starting
+ * rather than have its amounts read as paise.
+ */
+@Component
+public class MoneyColumnMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyColumnMigration.class);
+
+    private static final Map<String, List<String>> MONEY_COLUMNS = new LinkedHashMap<>();
+    static {
+        MONEY_COLUMNS.put("invoices", List.of("subtotal"));
+        MONEY_COLUMNS.put("invoice_items", List.of("rate", "amount"));
+        MONEY_COLUMNS.put("payments", List.of("amount_paid"));
+        MONEY_COLUMNS.put("customer_balances", List.of("total_invoiced", "total_paid", "outstanding"));
+    }
+
+    private static final DateTimeFormatter BACKUP_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final HikariDataSource writer;
+    private final boolean enabled;
+
+    public MoneyColumnMigration(@Qualifier("writerDataSource") HikariDataSource writer,
+            @Value("${app.money.migrate-columns:false}") boolean enabled) {
+        this.writer = writer;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!enabled) {
+            List<String> pending = pending();
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException("Money columns in " + pending + " still hold rupees;"
+                        + " start once with app.money.migrate-columns=true to convert them to paise");
+            }
+            return;
+        }
+        List<String> migrated = migrate();
+        if (!migrated.isEmpty()) {
+            log.info("Converted money columns to paise in {}", migrated);
+        }
+    }
+
+    /** Returns the tables whose money columns are not yet in paise. */
+    public List<String> pending() throws SQLException {
+        try (Connection connection = writer.getConnection()) {
+            return List.copyOf(toConvert(connection).keySet());
+        }
+    }
+
+    /** Backs up the database and returns the tables that were rebuilt. */
+    public List<String> migrate() throws SQLException {
+        List<String> migrated = new ArrayList<>();
+        try (Connection connection = writer.getConnection()) {
+            Map<String, List<String>> toConvert = toConvert(connection);
+            if (toConvert.isEmpty()) {
+                return migrated;
+            }
+            backup(connection);
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<String>> table : toConvert.entrySet()) {
+                    rebuild(connection, table.getKey(), table.getValue());
+                    migrated.add(table.getKey());
+                }
+                if (migrated.contains("customer_balances")) {
+                    // Rounded separately, the totals could disagree with outstanding by a paisa
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(
+                                "UPDATE customer_balances SET outstanding = total_invoiced - total_paid");
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return migrated;
+    }
+
+    /** Money columns still declared as something other than an integer, by table. */
+    private static Map<String, List<String>> toConvert(Connection connection) throws SQLException {
+        Map<String, List<String>> toConvert = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> table : MONEY_COLUMNS.entrySet()) {
+            List<String> columns = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("PRAGMA table_info(" + table.getKey() + ")")) {
+                while (rs.next()) {
+                    String column = rs.getString("name");
+                    String type = rs.getString("type").toLowerCase(Locale.ROOT);
+                    if (table.getValue().contains(column) && !type.equals("bigint") && !type.equals("integer")) {
+                        columns.add(column);
+                    }
+                }
+            }
+            if (!columns.isEmpty()) {
+                toConvert.put(table.getKey(), columns);
+            }
+        }
+        return toConvert;
+    }
+
+    /** Copies the database to {@code <file>.before-paise-<timestamp>}; in-memory databases have no file. */
+    private static void backup(Connection connection) throws SQLException {
+        String file = queryString(connection, "SELECT file FROM pragma_database_list WHERE name = ?", "main");
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        Path backup = Path.of(file + ".before-paise-" + LocalDateTime.now().format(BACKUP_SUFFIX));
+        try (PreparedStatement ps = connection.prepareStatement("VACUUM INTO ?")) {
+            ps.setString(1, backup.toString());
+            ps.executeUpdate();
+        }
+        log.info("Backed up {} to {} before converting money columns", file, backup);
+    }
+
+    private void rebuild(Connection connection, String table, List<String> toConvert) throws SQLException {
+        String ddl = queryString(connection,
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?", table);
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+
+        String rebuilt = table + "_paise";
+        String newDdl = ddl.replaceFirst("(?i)^CREATE TABLE\\s+\"?" + table + "\"?", "CREATE TABLE " + rebuilt);
+        for (String column : toConvert) {
+            Matcher type = Pattern.compile("(?i)(\\b" + column + "\\s+)[a-z]+(?:\\s+precision)?(?:\\s*\\([^)]*\\))?")
+                    .matcher(newDdl);
+            if (!type.find()) {
+                throw new IllegalStateException("Cannot find column " + column + " in " + ddl);
+            }
+            newDdl = newDdl.substring(0, type.start()) + type.group(1) + "bigint" + newDdl.substring(type.end());
+        }
+
+        List<String> select = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            select.add(toConvert.contains(column) ? "CAST(ROUND(" + column + " * 100) AS INTEGER)" : column);
+        }
+        List<String> indexes = queryStrings(connection,
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL", table);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(newDdl);
+            statement.executeUpdate("INSERT INTO " + rebuilt + " (" + String.join(", ", columns) + ") SELECT "
+                    + String.join(", ", select) + " FROM " + table);
+            statement.executeUpdate("DROP TABLE " + table);
+            statement.executeUpdate("ALTER TABLE " + rebuilt + " RENAME TO " + table);
+            for (String index : indexes) {
+                statement.executeUpdate(index);
+            }
+        }
+    }
+
+    private static String queryString(Connection connection, String sql, String arg) throws SQLException {
+        List<String> values = queryStrings(connection, sql, arg);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private static List<String> queryStrings(Connection connection, String sql, String arg) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, arg);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    values.add(rs.getString(1));
+                }
+            }
+        }
+        return values;
+    }
+
+    /** Holds the EntityManagerFactory, and with it Hibernate's schema update, until the migration has run. */
+    @Component
+    static class EntityManagerFactoryDependsOnMigration extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnMigration() {
+            super(MoneyColumnMigration.class);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.imperialbookbinding.app.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.imperialbookbinding.app.metrics.SqlProfiler;
+
+/**
+ * Times every statement executed through its connections and reports it to
+ * the {@link SqlProfiler}. Sits below both Hibernate and
+ * {@code JdbcTemplate}, so it sees all of the application's SQL.
+ */
+public class SqlProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilingDataSource(DataSource target, SqlProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profile(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profile(super.getConnection(username, password));
+    }
+
+    private Connection profile(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement and prepareCall carry their SQL up front
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return profile(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement profile(Statement target, Class<?> type, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(target, method, args);
+                    }
+                    long started = System.nanoTime();
+                    Object result = invoke(target, method, args);
+                    long elapsed = System.nanoTime() - started;
+
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    profiler.record(sql != null ? sql : "(batch)", elapsed, method.getName().contains("Batch"));
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
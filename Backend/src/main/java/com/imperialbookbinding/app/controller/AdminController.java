@@ -0,0 +1,80 @@
+package com.imperialbookbinding.app.controller;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.imperialbookbinding.app.cache.LruCache.CacheStats;
+import com.imperialbookbinding.app.dto.LedgerReport;
+import com.imperialbookbinding.app.dto.PdfRenderStats;
+import com.imperialbookbinding.app.dto.SearchIndexReport;
+import com.imperialbookbinding.app.dto.WriteQueueStats;
+import com.imperialbookbinding.app.service.CustomerBalanceService;
+import com.imperialbookbinding.app.service.CustomerCache;
+import com.imperialbookbinding.app.service.InvoicePdfCache;
+import com.imperialbookbinding.app.service.InvoicePdfRenderer;
+import com.imperialbookbinding.app.service.InvoiceSearchService;
+import com.imperialbookbinding.app.service.WriteQueue;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final CustomerBalanceService balanceService;
+    private final InvoicePdfCache pdfCache;
+    private final CustomerCache customerCache;
+    private final InvoicePdfRenderer pdfRenderer;
+    private final WriteQueue writeQueue;
+    private final InvoiceSearchService searchService;
+
+    public AdminController(
+            CustomerBalanceService balanceService,
+            InvoicePdfCache pdfCache,
+            CustomerCache customerCache,
+            InvoicePdfRenderer pdfRenderer,
+            WriteQueue writeQueue,
+            InvoiceSearchService searchService) {
+        this.balanceService = balanceService;
+        this.pdfCache = pdfCache;
+        this.customerCache = customerCache;
+        this.pdfRenderer = pdfRenderer;
+        this.writeQueue = writeQueue;
+        this.searchService = searchService;
+    }
+
+    @GetMapping("/balances/verify")
+    public LedgerReport verifyBalances() {
+        return balanceService.verify();
+    }
+
+    @PostMapping("/balances/rebuild")
+    public LedgerReport rebuildBalances() {
+        return balanceService.rebuild();
+    }
+
+    @PostMapping("/search/rebuild")
+    public SearchIndexReport rebuildSearchIndex() {
+        return searchService.rebuild();
+    }
+
+    @GetMapping("/caches")
+    public Map<String, CacheStats> cacheStats() {
+        return Map.of(
+                "invoicePdfs", pdfCache.stats(),
+                "customers", customerCache.stats(),
+                "customerList", customerCache.listStats());
+    }
+
+    @GetMapping("/pdf-render")
+    public PdfRenderStats pdfRenderStats() {
+        return pdfRenderer.stats();
+    }
+
+    @GetMapping("/write-queue")
+    public WriteQueueStats writeQueueStats() {
+        return writeQueue.stats();
+    }
+}
@@ -3,18 +3,28 @@ package com.imperialbookbinding.app.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.imperialbookbinding.app.dto.CustomerHistory;
+import com.imperialbookbinding.app.dto.CustomerSuggestion;
 import com.imperialbookbinding.app.dto.CustomerWithBalance;
+import com.imperialbookbinding.app.dto.StatementCursor;
 import com.imperialbookbinding.app.entity.Customer;
-import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.service.ChangeVersionService;
+import com.imperialbookbinding.app.service.CustomerHistoryService;
 import com.imperialbookbinding.app.service.CustomerService;
+import com.imperialbookbinding.app.service.CustomerTypeahead;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -22,15 +32,43 @@ public class CustomerController {
 
 	@Autowired
 	private CustomerService service;
+	@Autowired
+	private CustomerHistoryService historyService;
+	@Autowired
+	private CustomerTypeahead typeahead;
+	@Autowired
+	private ChangeVersionService changes;
 
 	@PostMapping
 	public Customer create(@RequestBody Customer customer) {
 		return service.create(customer);
 	}
 
+	/**
+	 * Every customer, or with {@code since} only those written after that
+	 * change version; polled like {@code GET /api/invoices}.
+	 */
 	@GetMapping
-	public List<Customer> getAll() {
-		return service.getAll();
+	public ResponseEntity<List<Customer>> getAll(
+			@RequestParam(required = false) Long since,
+			WebRequest request) {
+		long version = changes.current();
+		if (request.checkNotModified(Long.toString(version))) {
+			return null;
+		}
+		return InvoiceController.changedSince(version)
+				.body(since != null ? service.getChangedSince(since) : service.getAll());
+	}
+
+	/**
+	 * Customers whose name, any later word of it, or phone number starts
+	 * with {@code q}, best match first. Served from memory.
+	 */
+	@GetMapping("/typeahead")
+	public List<CustomerSuggestion> typeahead(
+			@RequestParam String q,
+			@RequestParam(defaultValue = "10") int limit) {
+		return typeahead.suggest(q, Math.min(Math.max(limit, 1), 50));
 	}
 
 	@GetMapping("/{id}")
@@ -38,22 +76,59 @@ public class CustomerController {
 		return service.getById(id);
 	}
 
+	/**
+	 * Customers with balances, optionally paged and sorted. A negative page,
+	 * a size below one, or an unknown sort or direction is a 400; sizes
+	 * above 500 are capped.
+	 */
 	@GetMapping("/with-balance")
-	public List<CustomerWithBalance> customersWithBalance() {
-		return service.getCustomersWithBalance();
+	public List<CustomerWithBalance> customersWithBalance(
+			@RequestParam(required = false) Integer page,
+			@RequestParam(required = false) Integer size,
+			@RequestParam(defaultValue = "id") String sort,
+			@RequestParam(defaultValue = "asc") String direction) {
+		if (page != null && page < 0) {
+			throw badRequest("Page must not be negative: " + page);
+		}
+		if (size != null && size < 1) {
+			throw badRequest("Size must be at least 1: " + size);
+		}
+		if (!CustomerService.BALANCE_SORTS.contains(sort)) {
+			throw badRequest("Unsupported sort: " + sort);
+		}
+		Sort.Direction order = Sort.Direction.fromOptionalString(direction)
+				.orElseThrow(() -> badRequest("Unsupported direction: " + direction));
+		return service.getCustomersWithBalance(page, size != null ? Math.min(size, 500) : null, sort, order);
 	}
-	
-//	@GetMapping("/{id}/history")
-//	public CustomerHistory getCustomerHistory(@PathVariable Long id) {
-//	    Customer customer = customerService.getById(id);
-//
-//	    List<Invoice> invoices = invoiceRepo.findByCustomerId(id);
-//	    List<Payment> payments = paymentRepo.findByCustomerId(id);
-//
-//	    Double balance = customerService.getBalance(id);
-//
-//	    return new CustomerHistory(customer, invoices, payments, balance);
-//	}
 
+	/**
+	 * The customer's statement, newest line first, each line carrying the
+	 * balance after it. Pages are {@code limit} lines; the next page's
+	 * cursor comes back in {@code nextCursor} and the {@code X-Next-Cursor}
+	 * header. A cursor we did not hand out is a 400.
+	 */
+	@GetMapping("/{id}/history")
+	public ResponseEntity<CustomerHistory> getCustomerHistory(
+			@PathVariable Long id,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "50") int limit) {
+		StatementCursor position;
+		try {
+			position = StatementCursor.parse(cursor);
+		} catch (IllegalArgumentException e) {
+			throw badRequest(e.getMessage());
+		}
+		CustomerHistory history = historyService.getHistory(id, position, Math.min(Math.max(limit, 1), 500));
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (history.nextCursor() != null) {
+			response.header(InvoiceController.NEXT_CURSOR_HEADER, history.nextCursor());
+		}
+		return response.body(history);
+	}
+
+	static ResponseStatusException badRequest(String reason) {
+		return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+	}
 
 }
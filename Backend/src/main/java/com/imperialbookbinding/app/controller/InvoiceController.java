@@ -1,56 +1,150 @@
 package com.imperialbookbinding.app.controller;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.imperialbookbinding.app.dto.BatchInvoiceResult;
 import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
 import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.InvoiceSearchHit;
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.KeysetPage;
 import com.imperialbookbinding.app.entity.Invoice;
-import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.service.ChangeVersionService;
+import com.imperialbookbinding.app.service.InvoiceBatchService;
+import com.imperialbookbinding.app.service.InvoiceSearchService;
 import com.imperialbookbinding.app.service.InvoiceService;
+import com.imperialbookbinding.app.service.WriteQueue;
 
 @RestController
 @RequestMapping("/api/invoices")
 public class InvoiceController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String CHANGE_VERSION_HEADER = "X-Change-Version";
+    private static final int MAX_PAGE_SIZE = 500;
+
 	@Autowired
     private InvoiceService service;
-	@Autowired
-	private InvoiceRepository invoiceRepo;
+    private final InvoiceBatchService batchService;
+    private final InvoiceSearchService searchService;
+    private final ChangeVersionService changes;
+    private final WriteQueue writes;
 
-    public InvoiceController(InvoiceService service) {
+    public InvoiceController(
+            InvoiceService service,
+            InvoiceBatchService batchService,
+            InvoiceSearchService searchService,
+            ChangeVersionService changes,
+            WriteQueue writes) {
         this.service = service;
+        this.batchService = batchService;
+        this.searchService = searchService;
+        this.changes = changes;
+        this.writes = writes;
     }
 
     @PostMapping
     public Invoice create(@RequestBody CreateInvoiceRequest request) {
-        return service.createInvoice(request);
+        return writes.execute(() -> service.createInvoice(request));
+    }
+
+    /**
+     * Creates many invoices at once. Always answers 200 with one result per
+     * entry, in request order; failed entries carry the reason and do not
+     * stop the others.
+     */
+    @PostMapping("/batch")
+    public List<BatchInvoiceResult> createBatch(@RequestBody List<CreateInvoiceRequest> requests) {
+        return batchService.createInvoices(requests);
     }
     
+    /**
+     * Invoices ordered by issue date and id. Pass {@code limit} to page
+     * through them: the next page's cursor comes back in the
+     * {@code X-Next-Cursor} header and is absent on the last page.
+     *
+     * <p>For polling, every response carries the current change version in
+     * {@code X-Change-Version} and as its ETag. Pass it back as
+     * {@code since} to get only invoices written after it, or in
+     * {@code If-None-Match} to get 304 when nothing has changed.
+     */
     @GetMapping
-    public List<InvoiceResponse> getAllInvoices() {
-        return invoiceRepo.findAll()
-            .stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+    public ResponseEntity<List<InvoiceResponse>> getAllInvoices(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String numberPrefix,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+
+        long version = changes.current();
+        if (request.checkNotModified(Long.toString(version))) {
+            return null;
+        }
+
+        KeysetPage<InvoiceResponse> page = service.listInvoices(
+                new InvoiceFilter(customerId, from, to, status, numberPrefix, since),
+                cursor(cursor),
+                "desc".equalsIgnoreCase(direction),
+                limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : null);
+
+        ResponseEntity.BodyBuilder response = changedSince(version);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
-    private InvoiceResponse mapToResponse(Invoice invoice) {
-        return new InvoiceResponse(
-            invoice.getId(),
-            invoice.getInvoiceNumber(),
-            invoice.getCustomer().getId(),
-            invoice.getCustomer().getName(),
-            invoice.getSubtotal(),
-            invoice.getIssueDate()
-        );
+    /**
+     * Invoices whose customer name, notes or line descriptions contain every
+     * word of {@code q}, best match first, {@code size} per page.
+     */
+    @GetMapping("/search")
+    public List<InvoiceSearchHit> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return searchService.search(q, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+    }
+
+    /** The {@code cursor} parameter, or a 400 when it is not one we handed out. */
+    static KeysetCursor cursor(String value) {
+        try {
+            return KeysetCursor.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
-}
 
+    /**
+     * A 200 stamped with {@code version}, read before the rows: a row
+     * committed in between may be both in this body and above the version,
+     * and clients merging by id simply see it twice. Browsers are told to
+     * revalidate each time rather than guess a freshness period.
+     */
+    static ResponseEntity.BodyBuilder changedSince(long version) {
+        return ResponseEntity.ok()
+                .header(CHANGE_VERSION_HEADER, Long.toString(version))
+                .cacheControl(CacheControl.noCache());
+    }
+}
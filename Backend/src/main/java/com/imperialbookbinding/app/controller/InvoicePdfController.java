@@ -1,23 +1,36 @@
 package com.imperialbookbinding.app.controller;
 
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.imperialbookbinding.app.dto.CachedPdf;
+import com.imperialbookbinding.app.dto.ExportProgress;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.PdfJobStatus;
+import com.imperialbookbinding.app.dto.PdfVersion;
+import com.imperialbookbinding.app.entity.CustomerBalance;
 import com.imperialbookbinding.app.entity.Invoice;
 import com.imperialbookbinding.app.entity.InvoiceItem;
 import com.imperialbookbinding.app.repository.InvoiceItemRepository;
 import com.imperialbookbinding.app.repository.InvoiceRepository;
-import com.imperialbookbinding.app.repository.PaymentRepository;
-import com.imperialbookbinding.app.service.CustomerService;
+import com.imperialbookbinding.app.service.CustomerBalanceService;
+import com.imperialbookbinding.app.service.InvoicePdfExporter;
+import com.imperialbookbinding.app.service.InvoicePdfRenderer;
 import com.imperialbookbinding.app.service.InvoicePdfService;
 
 
@@ -25,47 +38,103 @@ import com.imperialbookbinding.app.service.InvoicePdfService;
 @RequestMapping("/api/invoices")
 public class InvoicePdfController {
 
+    static final String EXPORT_ID_HEADER = "X-Export-Id";
+
     private final InvoiceRepository invoiceRepo;
     private final InvoiceItemRepository itemRepo;
-    private final PaymentRepository paymentRepo;
     private final InvoicePdfService pdfService;
-    private final CustomerService customerService;
+    private final CustomerBalanceService balanceService;
+    private final InvoicePdfRenderer renderer;
+    private final InvoicePdfExporter exporter;
 
     public InvoicePdfController(
             InvoiceRepository invoiceRepo,
             InvoiceItemRepository itemRepo,
-            PaymentRepository paymentRepo,
             InvoicePdfService pdfService,
-            CustomerService customerService) {
+            CustomerBalanceService balanceService,
+            InvoicePdfRenderer renderer,
+            InvoicePdfExporter exporter) {
         this.invoiceRepo = invoiceRepo;
         this.itemRepo = itemRepo;
-        this.paymentRepo = paymentRepo;
         this.pdfService = pdfService;
-        this.customerService = customerService;
+        this.balanceService = balanceService;
+        this.renderer = renderer;
+        this.exporter = exporter;
     }
 
+    /**
+     * Serves the invoice PDF, rendering it only when the invoice or its
+     * customer's balance changed since the cached copy, and waiting for a
+     * background render already in flight. Clients sending the previous
+     * {@code ETag} in {@code If-None-Match} get a 304.
+     */
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<FileSystemResource> generatePdf(@PathVariable Long id) throws Exception {
+    public ResponseEntity<byte[]> generatePdf(@PathVariable Long id, WebRequest request) throws Exception {
+
+        PdfVersion version = invoiceRepo.findPdfVersion(id)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+
+        if (request.checkNotModified(version.etag())) {
+            return null;
+        }
+
+        CachedPdf pdf = renderer.getPdf(version);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=" + pdf.fileName())
+                .eTag(version.etag())
+                .lastModified(pdf.renderedAt())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(pdf.content());
+    }
+
+    @GetMapping("/{id}/pdf/status")
+    public PdfJobStatus pdfStatus(@PathVariable Long id) {
+        return renderer.status(id);
+    }
 
+    /**
+     * Writes a copy of the current PDF to {@code data/invoices/}. Downloads
+     * never touch the disk; this is the only path that does.
+     */
+    @PostMapping("/{id}/pdf/archive")
+    public Map<String, String> archivePdf(@PathVariable Long id) throws Exception {
         Invoice invoice = invoiceRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
         List<InvoiceItem> items = itemRepo.findByInvoiceId(id);
-
-        Double totalPaid = paymentRepo.totalPaidByCustomer(invoice.getCustomer().getId());
-        Double balance = customerService.getBalance(invoice.getCustomer().getId());
+        CustomerBalance balance = balanceService.get(invoice.getCustomer().getId());
 
         String path = pdfService.generateInvoicePdf(
-                invoice, items, totalPaid, balance
+                invoice, items, balance.getTotalPaid(), balance.getOutstanding()
         );
+        return Map.of("path", path);
+    }
 
-        FileSystemResource file = new FileSystemResource(path);
+    /**
+     * Streams every matching invoice PDF as one ZIP. The response starts
+     * before rendering finishes; {@code X-Export-Id} names the export so
+     * its progress can be polled while the download runs.
+     */
+    @GetMapping("/pdf/export")
+    public ResponseEntity<StreamingResponseBody> exportPdfs(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        String exportId = exporter.start(new InvoiceFilter(customerId, from, to, null, null, null));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=" + file.getFilename())
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(file);
+                        "attachment; filename=invoices-" + exportId + ".zip")
+                .header(EXPORT_ID_HEADER, exportId)
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(out -> exporter.write(exportId, out));
     }
-}
 
+    @GetMapping("/pdf/export/{exportId}")
+    public ExportProgress exportProgress(@PathVariable String exportId) {
+        return exporter.progress(exportId);
+    }
+}
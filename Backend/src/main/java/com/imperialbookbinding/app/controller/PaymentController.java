@@ -1,44 +1,83 @@
 package com.imperialbookbinding.app.controller;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.imperialbookbinding.app.dto.KeysetPage;
+import com.imperialbookbinding.app.dto.PaymentFilter;
 import com.imperialbookbinding.app.dto.PaymentRequest;
 import com.imperialbookbinding.app.dto.PaymentResponse;
 import com.imperialbookbinding.app.entity.Payment;
-import com.imperialbookbinding.app.repository.PaymentRepository;
+import com.imperialbookbinding.app.service.ChangeVersionService;
 import com.imperialbookbinding.app.service.PaymentService;
+import com.imperialbookbinding.app.service.WriteQueue;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final PaymentService service;
-    private final PaymentRepository paymentRepository;
+    private final ChangeVersionService changes;
+    private final WriteQueue writes;
 
-    public PaymentController(PaymentService service, PaymentRepository paymentRepository) {
+    public PaymentController(PaymentService service, ChangeVersionService changes, WriteQueue writes) {
         this.service = service;
-        this.paymentRepository = paymentRepository;
+        this.changes = changes;
+        this.writes = writes;
     }
 
     @PostMapping
     public PaymentResponse pay(@RequestBody PaymentRequest request) {
-        Payment payment = service.recordPayment(request.customerId(), null, request.amount(), request.paymentDate());
+        Payment payment = writes.execute(() ->
+                service.recordPayment(request.customerId(), null, request.amount(), request.paymentDate()));
         return mapToResponse(payment);
     }
 
+    /**
+     * Payments ordered by payment date and id, paged and polled the same
+     * way as {@code GET /api/invoices}: {@code limit} and the
+     * {@code X-Next-Cursor} header, {@code since} and the
+     * {@code X-Change-Version} header or ETag.
+     */
     @GetMapping
-    public List<PaymentResponse> getAllPayments() {
-        return paymentRepository.findAll()
-            .stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+    public ResponseEntity<List<PaymentResponse>> getAllPayments(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+
+        long version = changes.current();
+        if (request.checkNotModified(Long.toString(version))) {
+            return null;
+        }
+
+        KeysetPage<PaymentResponse> page = service.listPayments(
+                new PaymentFilter(customerId, from, to, since),
+                InvoiceController.cursor(cursor),
+                "desc".equalsIgnoreCase(direction),
+                limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : null);
+
+        ResponseEntity.BodyBuilder response = InvoiceController.changedSince(version);
+        if (page.nextCursor() != null) {
+            response.header(InvoiceController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     private PaymentResponse mapToResponse(Payment payment) {
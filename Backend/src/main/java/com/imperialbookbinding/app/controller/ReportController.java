@@ -0,0 +1,33 @@
+package com.imperialbookbinding.app.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.imperialbookbinding.app.dto.AgingReport;
+import com.imperialbookbinding.app.service.AgingReportService;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final AgingReportService agingService;
+
+    public ReportController(AgingReportService agingService) {
+        this.agingService = agingService;
+    }
+
+    /**
+     * Outstanding receivables per customer and in total, in 0-30, 31-60,
+     * 61-90 and 90+ day buckets by issue date. {@code asOf} defaults to today.
+     */
+    @GetMapping("/aging")
+    public AgingReport aging(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return agingService.agingAsOf(asOf != null ? asOf : LocalDate.now());
+    }
+}
@@ -0,0 +1,14 @@
+package com.imperialbookbinding.app.dto;
+
+import com.imperialbookbinding.app.money.Rupees;
+
+/**
+ * Outstanding amounts by days since the invoice was issued.
+ */
+public record AgingBuckets(
+	    @Rupees long days0To30,
+	    @Rupees long days31To60,
+	    @Rupees long days61To90,
+	    @Rupees long over90,
+	    @Rupees long total
+	) {}
@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+
+public record AgingInvoiceRow(
+	    Long customerId,
+	    String customerName,
+	    LocalDate issueDate,
+	    long amount
+	) {}
@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AgingReport(
+	    LocalDate asOf,
+	    List<CustomerAging> customers,
+	    AgingBuckets totals
+	) {}
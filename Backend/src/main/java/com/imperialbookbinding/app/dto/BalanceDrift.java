@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import com.imperialbookbinding.app.money.Rupees;
+
+public record BalanceDrift(
+	    Long customerId,
+	    @Rupees long ledgerOutstanding,
+	    @Rupees long actualOutstanding,
+	    @Rupees long difference
+	) {}
@@ -0,0 +1,7 @@
+package com.imperialbookbinding.app.dto;
+
+public record BalanceTotals(
+	    Long customerId,
+	    long totalInvoiced,
+	    long totalPaid
+	) {}
@@ -0,0 +1,18 @@
+package com.imperialbookbinding.app.dto;
+
+public record BatchInvoiceResult(
+	    int index,
+	    String status,
+	    Long invoiceId,
+	    String invoiceNumber,
+	    String error
+	) {
+
+    public static BatchInvoiceResult created(int index, Long invoiceId, String invoiceNumber) {
+        return new BatchInvoiceResult(index, "CREATED", invoiceId, invoiceNumber, null);
+    }
+
+    public static BatchInvoiceResult failed(int index, String error) {
+        return new BatchInvoiceResult(index, "FAILED", null, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.Instant;
+
+public record CachedPdf(
+	    PdfVersion version,
+	    String fileName,
+	    byte[] content,
+	    Instant renderedAt
+	) {}
@@ -2,6 +2,8 @@ package com.imperialbookbinding.app.dto;
 
 import java.util.List;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 public class CreateInvoiceRequest {
 
     public Long customerId;
@@ -11,6 +13,8 @@ public class CreateInvoiceRequest {
     public static class Item {
         public String description;
         public Integer quantity;
-        public Double rate;
+        /** Paise; sent as rupees. */
+        @Rupees
+        public Long rate;
     }
 }
@@ -0,0 +1,14 @@
+package com.imperialbookbinding.app.dto;
+
+import com.imperialbookbinding.app.money.Rupees;
+
+/**
+ * {@code unappliedCredit} is what the customer has paid beyond every
+ * invoice issued up to the report date.
+ */
+public record CustomerAging(
+	    Long customerId,
+	    String customerName,
+	    AgingBuckets buckets,
+	    @Rupees long unappliedCredit
+	) {}
@@ -2,14 +2,16 @@ package com.imperialbookbinding.app.dto;
 
 import java.util.List;
 
-import com.imperialbookbinding.app.entity.Customer;
-import com.imperialbookbinding.app.entity.Invoice;
-import com.imperialbookbinding.app.entity.Payment;
-
+import com.imperialbookbinding.app.money.Rupees;
 
+/**
+ * One page of a customer's statement, newest line first. {@code balance}
+ * is what the customer owes now; each entry carries the balance after it.
+ */
 public record CustomerHistory(
-	    Customer customer,
-	    List<Invoice> invoices,
-	    List<Payment> payments,
-	    Double balance
+	    Long customerId,
+	    String customerName,
+	    @Rupees long balance,
+	    List<StatementEntry> entries,
+	    String nextCursor
 	) {}
@@ -0,0 +1,7 @@
+package com.imperialbookbinding.app.dto;
+
+public record CustomerSuggestion(
+    Long id,
+    String name,
+    String phone
+) {}
@@ -0,0 +1,6 @@
+package com.imperialbookbinding.app.dto;
+
+public record CustomerTotal(
+	    Long customerId,
+	    long total
+	) {}
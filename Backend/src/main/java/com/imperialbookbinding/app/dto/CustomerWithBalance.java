@@ -1,9 +1,11 @@
 package com.imperialbookbinding.app.dto;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 public record CustomerWithBalance(
 	    Long id,
 	    String name,
 	    String email,
 	    String phone,
-	    Double balance
+	    @Rupees long balance
 	) {}
@@ -0,0 +1,13 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.Instant;
+
+public record ExportProgress(
+	    String exportId,
+	    String state,
+	    int total,
+	    int completed,
+	    int failed,
+	    Instant startedAt,
+	    Instant finishedAt
+	) {}
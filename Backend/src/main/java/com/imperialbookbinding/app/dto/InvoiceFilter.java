@@ -0,0 +1,12 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+
+public record InvoiceFilter(
+	    Long customerId,
+	    LocalDate from,
+	    LocalDate to,
+	    String status,
+	    String numberPrefix,
+	    Long since
+	) {}
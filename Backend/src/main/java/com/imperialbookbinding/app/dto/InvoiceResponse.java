@@ -3,11 +3,13 @@ package com.imperialbookbinding.app.dto;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 public record InvoiceResponse(
     Long id,
     String invoiceNumber,
     Long customerId,
     String customerName,
-    Double total,
+    @Rupees long total,
     LocalDate createdDate
 ) {}
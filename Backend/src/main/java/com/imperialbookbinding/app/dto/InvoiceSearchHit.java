@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+/**
+ * One search result: the invoice's list row and an extract of the text
+ * that matched, with the matched words in square brackets.
+ */
+public record InvoiceSearchHit(
+    InvoiceResponse invoice,
+    String snippet
+) {}
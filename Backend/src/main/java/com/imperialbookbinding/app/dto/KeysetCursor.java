@@ -0,0 +1,29 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position of the last row of a keyset page: its date and id. Encoded for
+ * clients as {@code 2026-01-31:42}.
+ */
+public record KeysetCursor(LocalDate date, Long id) {
+
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int sep = value.indexOf(':');
+        try {
+            return new KeysetCursor(
+                    LocalDate.parse(value.substring(0, sep)),
+                    Long.valueOf(value.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        return date + ":" + id;
+    }
+}
@@ -0,0 +1,23 @@
+package com.imperialbookbinding.app.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of rows plus the cursor for the next page, or {@code null} when
+ * this is the last one.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Builds a page from a result fetched with {@code limit + 1} rows; the
+     * extra row only signals that another page exists.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, Integer limit, Function<T, KeysetCursor> cursorOf) {
+        if (limit == null || rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, limit);
+        return new KeysetPage<>(page, cursorOf.apply(page.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import java.util.List;
+
+public record LedgerReport(
+	    int customersChecked,
+	    int driftedCustomers,
+	    boolean rebuilt,
+	    List<BalanceDrift> drift
+	) {}
@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+
+public record PaymentFilter(
+	    Long customerId,
+	    LocalDate from,
+	    LocalDate to,
+	    Long since
+	) {}
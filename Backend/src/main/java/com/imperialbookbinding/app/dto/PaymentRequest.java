@@ -2,9 +2,11 @@ package com.imperialbookbinding.app.dto;
 
 import java.time.LocalDate;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 public record PaymentRequest(
 	    Long customerId,
 	    Long invoiceId,
-	    Double amount,
+	    @Rupees Long amount,
 	    LocalDate paymentDate
 	) {}
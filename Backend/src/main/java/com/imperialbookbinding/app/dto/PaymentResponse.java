@@ -2,10 +2,12 @@ package com.imperialbookbinding.app.dto;
 
 import java.time.LocalDate;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 public record PaymentResponse(
     Long id,
     Long customerId,
     String customerName,
-    Double amount,
+    @Rupees long amount,
     LocalDate paymentDate
 ) {}
@@ -0,0 +1,13 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.Instant;
+
+public record PdfJobStatus(
+	    Long invoiceId,
+	    String etag,
+	    String state,
+	    Instant queuedAt,
+	    Instant startedAt,
+	    Instant finishedAt,
+	    String error
+	) {}
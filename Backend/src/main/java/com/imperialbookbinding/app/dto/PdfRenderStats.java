@@ -0,0 +1,10 @@
+package com.imperialbookbinding.app.dto;
+
+public record PdfRenderStats(
+	    int threads,
+	    int queued,
+	    int queueCapacity,
+	    int active,
+	    long completed,
+	    long rejected
+	) {}
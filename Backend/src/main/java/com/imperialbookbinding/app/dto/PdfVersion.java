@@ -0,0 +1,24 @@
+package com.imperialbookbinding.app.dto;
+
+/**
+ * What a rendered invoice PDF depends on: the invoice itself, the change
+ * version of its customer's balance, which is printed on every invoice,
+ * and the layout that prints them.
+ */
+public record PdfVersion(
+	    Long invoiceId,
+	    Long customerId,
+	    Long balanceVersion
+	) {
+
+    /**
+     * Bump whenever {@code InvoicePdfService} prints something differently,
+     * so tags handed out for the old layout stop matching. 2: amounts
+     * rendered from paise.
+     */
+    public static final int RENDER_FORMAT = 2;
+
+    public String etag() {
+        return "\"inv-" + invoiceId + "-v" + balanceVersion + "-f" + RENDER_FORMAT + "\"";
+    }
+}
@@ -0,0 +1,6 @@
+package com.imperialbookbinding.app.dto;
+
+public record SearchIndexReport(
+	    int invoicesIndexed,
+	    long elapsedMillis
+	) {}
@@ -0,0 +1,35 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position of the last statement line returned, plus the balance owed just
+ * before it in paise, so the next page continues the running balance
+ * without summing anything. Encoded as {@code 2026-01-31:P:42:125000}.
+ */
+public record StatementCursor(LocalDate date, boolean payment, Long id, long balance) {
+
+    public static StatementCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        try {
+            if (parts.length != 4 || !(parts[1].equals("I") || parts[1].equals("P"))) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+            return new StatementCursor(
+                    LocalDate.parse(parts[0]),
+                    parts[1].equals("P"),
+                    Long.valueOf(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        return date + ":" + (payment ? "P" : "I") + ":" + id + ":" + balance;
+    }
+}
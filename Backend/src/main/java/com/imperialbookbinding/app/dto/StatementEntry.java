@@ -0,0 +1,37 @@
+package com.imperialbookbinding.app.dto;
+
+import java.time.LocalDate;
+
+import com.imperialbookbinding.app.money.Rupees;
+
+/**
+ * One line of a customer statement. {@code balance} is what the customer
+ * owed right after this line.
+ */
+public record StatementEntry(
+	    String type,
+	    Long id,
+	    LocalDate date,
+	    String reference,
+	    @Rupees long debit,
+	    @Rupees long credit,
+	    @Rupees long balance
+	) {
+
+    public static final String INVOICE = "INVOICE";
+    public static final String PAYMENT = "PAYMENT";
+
+    /** Used by the statement queries; the balance is filled in afterwards. */
+    public StatementEntry(String type, Long id, LocalDate date, String reference, long debit, long credit) {
+        this(type, id, date, reference, debit, credit, 0);
+    }
+
+    public StatementEntry withBalance(long balance) {
+        return new StatementEntry(type, id, date, reference, debit, credit, balance);
+    }
+
+    /** Invoices sort before payments dated the same day. */
+    public boolean isPayment() {
+        return PAYMENT.equals(type);
+    }
+}
@@ -0,0 +1,11 @@
+package com.imperialbookbinding.app.dto;
+
+public record WriteQueueStats(
+	    boolean enabled,
+	    int queued,
+	    int maxBatchSize,
+	    long maxLingerMillis,
+	    long groups,
+	    long writes,
+	    long retriedGroups
+	) {}
@@ -0,0 +1,20 @@
+package com.imperialbookbinding.app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/** Single row holding the last change version handed out. */
+@Data
+@Entity
+@Table(name = "change_version")
+public class ChangeVersion {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -2,12 +2,16 @@ package com.imperialbookbinding.app.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+        @Index(name = "idx_customers_change_version", columnList = "change_version")
+})
 public class Customer {
 
     @Id
@@ -23,5 +27,10 @@ public class Customer {
 
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /** Version of the last write; see {@code ChangeVersionService}. */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
 }
 
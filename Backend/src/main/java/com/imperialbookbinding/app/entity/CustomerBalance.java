@@ -0,0 +1,52 @@
+package com.imperialbookbinding.app.entity;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import com.imperialbookbinding.app.money.Rupees;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Running totals for one customer in paise, kept in step with invoices and
+ * payments by the write paths so that a balance read is a single
+ * primary-key lookup.
+ */
+@Data
+@Entity
+@Table(name = "customer_balances")
+public class CustomerBalance {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Rupees
+    @Column(nullable = false)
+    private long totalInvoiced;
+
+    @Rupees
+    @Column(nullable = false)
+    private long totalPaid;
+
+    @Rupees
+    @Column(nullable = false)
+    private long outstanding;
+
+    /** Bumped on every change; lets readers tell whether a balance moved. */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long revision = 0L;
+
+    /**
+     * Version of the last write; see {@code ChangeVersionService}. Unlike
+     * {@link #revision} it never restarts, even when a rebuild recreates
+     * the row.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+}
@@ -3,11 +3,16 @@ package com.imperialbookbinding.app.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.imperialbookbinding.app.money.Rupees;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +22,11 @@ import lombok.Data;
 @Data
 @Entity
 
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+		@Index(name = "idx_invoices_customer_issue_date", columnList = "customer_id, issue_date"),
+		@Index(name = "idx_invoices_issue_date", columnList = "issue_date"),
+		@Index(name = "idx_invoices_change_version", columnList = "change_version")
+})
 public class Invoice {
 
 	@Id
@@ -34,8 +43,10 @@ public class Invoice {
 	@Column(nullable = false)
 	private LocalDate issueDate;
 
+	/** Paise. */
+	@Rupees
 	@Column(nullable = false)
-	private Double subtotal=0.0;
+	private long subtotal;
 
 	private String notes;
 
@@ -45,5 +56,10 @@ public class Invoice {
 	@Column(nullable = false)
 	private LocalDateTime createdAt = LocalDateTime.now();
 
+	/** Version of the last write; see {@code ChangeVersionService}. */
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private long changeVersion;
+
 
 }
@@ -1,5 +1,7 @@
 package com.imperialbookbinding.app.entity;
 
+import com.imperialbookbinding.app.money.Rupees;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -29,10 +31,14 @@ public class InvoiceItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    /** Paise. */
+    @Rupees
     @Column(nullable = false)
-    private Double rate;
+    private long rate;
 
+    /** Paise. */
+    @Rupees
     @Column(nullable = false)
-    private Double amount;
+    private long amount;
 
 }
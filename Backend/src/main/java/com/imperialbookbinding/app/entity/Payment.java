@@ -3,11 +3,16 @@ package com.imperialbookbinding.app.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.imperialbookbinding.app.money.Rupees;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,7 +20,11 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_customer_payment_date", columnList = "customer_id, payment_date"),
+        @Index(name = "idx_payments_payment_date", columnList = "payment_date"),
+        @Index(name = "idx_payments_change_version", columnList = "change_version")
+})
 public class Payment {
 
     @Id
@@ -30,12 +39,19 @@ public class Payment {
     @JoinColumn(name = "invoice_id")
     private Invoice invoice;
 
+    /** Paise. */
+    @Rupees
     @Column(nullable = false)
-    private Double amountPaid;
+    private long amountPaid;
 
     @Column(nullable = false)
     private LocalDate paymentDate;
 
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /** Version of the last write; see {@code ChangeVersionService}. */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
 }
@@ -0,0 +1,12 @@
+package com.imperialbookbinding.app.event;
+
+/**
+ * Published inside the writing transaction whenever a customer's ledger row
+ * changes. A null customer id means every balance was rebuilt.
+ */
+public record BalanceChangedEvent(Long customerId) {
+
+    public boolean affects(Long otherCustomerId) {
+        return customerId == null || customerId.equals(otherCustomerId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.imperialbookbinding.app.event;
+
+/**
+ * Published inside any transaction that creates or changes a customer.
+ */
+public record CustomerChangedEvent(Long customerId) {}
@@ -0,0 +1,6 @@
+package com.imperialbookbinding.app.event;
+
+/**
+ * Published inside the transaction that creates an invoice.
+ */
+public record InvoiceCreatedEvent(Long invoiceId, Long customerId) {}
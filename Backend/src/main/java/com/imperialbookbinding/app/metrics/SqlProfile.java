@@ -0,0 +1,56 @@
+package com.imperialbookbinding.app.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements run while one request was being served: how many, how long
+ * they took in total, how often each statement shape repeated, and which
+ * ones were slow.
+ */
+public class SqlProfile {
+
+    public record SlowQuery(String sql, long nanos) {
+    }
+
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private final List<SlowQuery> slowQueries = new ArrayList<>();
+
+    /** Returns how many times {@code shape} has now run, or 0 for batches. */
+    int record(String shape, long elapsed, boolean batch) {
+        statements++;
+        nanos += elapsed;
+        return batch ? 0 : shapes.merge(shape, 1, Integer::sum);
+    }
+
+    void slow(String sql, long elapsed) {
+        slowQueries.add(new SlowQuery(sql, elapsed));
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /** Shapes that ran at least {@code threshold} times, most repeated first. */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+        return repeated;
+    }
+
+    public List<SlowQuery> slowQueries() {
+        return slowQueries;
+    }
+}
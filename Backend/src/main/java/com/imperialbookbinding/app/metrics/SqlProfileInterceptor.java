@@ -0,0 +1,113 @@
+package com.imperialbookbinding.app.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Profiles the SQL run on the request thread. Every request records its
+ * statement count and database time, per method and URI pattern; repeated
+ * statement shapes and slow queries are logged with key-value fields and
+ * counted as {@code sql.profiler.findings}.
+ */
+public class SqlProfileInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfileInterceptor.class);
+
+    private static final String PROFILE = SqlProfileInterceptor.class.getName() + ".profile";
+
+    private final SqlProfiler profiler;
+    private final MeterRegistry registry;
+
+    public SqlProfileInterceptor(SqlProfiler profiler, MeterRegistry registry) {
+        this.profiler = profiler;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PROFILE) instanceof SqlProfile earlier) {
+            profiler.begin(earlier);
+        } else {
+            profiler.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Picked up again by the async dispatch, on another thread
+        request.setAttribute(PROFILE, profiler.end());
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlProfile profile = profiler.end();
+        if (profile == null) {
+            return;
+        }
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements run while serving the request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(profile.statements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL while serving the request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(profile.nanos(), TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<String, Integer> repeated : profile.repeated(profiler.repeatThreshold()).entrySet()) {
+            finding("n_plus_one", method, uri).increment();
+            log.atWarn()
+                    .addKeyValue("finding", "n_plus_one")
+                    .addKeyValue("method", method)
+                    .addKeyValue("uri", uri)
+                    .addKeyValue("count", repeated.getValue())
+                    .addKeyValue("sql", repeated.getKey())
+                    .log("Possible N+1 on {} {}: statement ran {} times: {}",
+                            method, uri, repeated.getValue(), repeated.getKey());
+        }
+        for (SqlProfile.SlowQuery slow : profile.slowQueries()) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(slow.nanos());
+            finding("slow_query", method, uri).increment();
+            log.atWarn()
+                    .addKeyValue("finding", "slow_query")
+                    .addKeyValue("method", method)
+                    .addKeyValue("uri", uri)
+                    .addKeyValue("durationMs", millis)
+                    .addKeyValue("sql", slow.sql())
+                    .log("Slow query on {} {}: {} ms: {}", method, uri, millis, slow.sql());
+        }
+    }
+
+    private Counter finding(String type, String method, String uri) {
+        return Counter.builder("sql.profiler.findings")
+                .description("Likely N+1s and slow queries seen while serving requests")
+                .tag("type", type)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.imperialbookbinding.app.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects a {@link SqlProfile} for the work done on the current thread
+ * between {@link #begin()} and {@link #end()}. A statement shape repeated
+ * {@code app.sql.profiler.repeat-threshold} times is reported as a likely
+ * N+1; one slower than {@code app.sql.profiler.slow-query-ms} as a slow
+ * query. In strict mode either one throws on the spot, failing the request,
+ * which is how tests catch a regression.
+ */
+@Component
+public class SqlProfiler {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ThreadLocal<SqlProfile> current = new ThreadLocal<>();
+    private final int repeatThreshold;
+    private final long slowQueryNanos;
+    private final boolean strict;
+
+    public SqlProfiler(
+            @Value("${app.sql.profiler.repeat-threshold:5}") int repeatThreshold,
+            @Value("${app.sql.profiler.slow-query-ms:100}") long slowQueryMillis,
+            @Value("${app.sql.profiler.strict:false}") boolean strict) {
+        this.repeatThreshold = repeatThreshold;
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.strict = strict;
+    }
+
+    public void begin() {
+        begin(new SqlProfile());
+    }
+
+    /** Carries on with {@code profile}, e.g. on the thread of an async dispatch. */
+    public void begin(SqlProfile profile) {
+        current.set(profile);
+    }
+
+    /** Returns the profile collected since {@link #begin()}, or null if none was started. */
+    public SqlProfile end() {
+        SqlProfile profile = current.get();
+        current.remove();
+        return profile;
+    }
+
+    public int repeatThreshold() {
+        return repeatThreshold;
+    }
+
+    /**
+     * Records a statement that has just run. Batches count towards the
+     * totals but not towards repeats: sending a batch in chunks is the fix
+     * for an N+1, not an instance of one.
+     */
+    public void record(String sql, long nanos, boolean batch) {
+        SqlProfile profile = current.get();
+        if (profile == null) {
+            return;
+        }
+        String shape = shape(sql);
+        int runs = profile.record(shape, nanos, batch);
+
+        if (nanos >= slowQueryNanos) {
+            profile.slow(sql, nanos);
+            if (strict) {
+                throw new IllegalStateException("Slow query ("
+                        + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms): " + sql);
+            }
+        }
+        if (strict && runs == repeatThreshold) {
+            throw new IllegalStateException(
+                    "Statement ran " + runs + " times in one request, likely an N+1: " + shape);
+        }
+    }
+
+    /** The statement with literals replaced by {@code ?} and whitespace collapsed. */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,52 @@
+package com.imperialbookbinding.app.metrics;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times a write from the call until its transaction completes, so the
+ * commit is part of the measurement. The timer is tagged with the outcome:
+ * {@code committed} or {@code rolled_back}.
+ */
+public final class TransactionTimer {
+
+    private TransactionTimer() {
+    }
+
+    public static void start(MeterRegistry registry, String name) {
+        start(registry, name, null);
+    }
+
+    /**
+     * As {@link #start(MeterRegistry, String)}, running {@code onCommit}
+     * once the transaction has committed.
+     */
+    public static void start(MeterRegistry registry, String name, Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(registry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(Timer.builder(name)
+                        .tag("outcome", outcome(status))
+                        .register(registry));
+                if (status == STATUS_COMMITTED && onCommit != null) {
+                    onCommit.run();
+                }
+            }
+        });
+    }
+
+    private static String outcome(int status) {
+        return switch (status) {
+            case TransactionSynchronization.STATUS_COMMITTED -> "committed";
+            case TransactionSynchronization.STATUS_ROLLED_BACK -> "rolled_back";
+            default -> "unknown";
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.imperialbookbinding.app.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Amounts are held as a primitive {@code long} count of paise everywhere:
+ * entities, DTOs, SQL columns and sums. Nothing is boxed or rounded on the
+ * way, so totals are exact. Rupees only appear at the edges: request
+ * bodies, JSON output (see {@link Rupees}) and printed invoices.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /** The nearest paisa to a rupee amount, rounding halves away from zero. */
+    public static long ofRupees(double rupees) {
+        return BigDecimal.valueOf(rupees)
+                .movePointRight(2)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    public static long ofRupees(BigDecimal rupees) {
+        return rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    /** A line amount; throws rather than overflow. */
+    public static long times(long paise, int quantity) {
+        return Math.multiplyExact(paise, quantity);
+    }
+
+    /** {@code 1234.50}, for printing. */
+    public static String format(long paise) {
+        return BigDecimal.valueOf(paise, 2).toPlainString();
+    }
+
+    static final class RupeesSerializer extends ValueSerializer<Long> {
+
+        @Override
+        public void serialize(Long paise, JsonGenerator gen, SerializationContext context) {
+            gen.writeNumber(toRupees(paise));
+        }
+    }
+
+    static final class RupeesDeserializer extends ValueDeserializer<Long> {
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) {
+            return ofRupees(parser.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.imperialbookbinding.app.money;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Marks a paise amount that is read and written as rupees in JSON, so
+ * {@code 45050} goes out as {@code 450.5} just as the old {@code Double}
+ * fields did.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@JacksonAnnotationsInside
+@JsonSerialize(using = Money.RupeesSerializer.class)
+@JsonDeserialize(using = Money.RupeesDeserializer.class)
+public @interface Rupees {
+}
@@ -0,0 +1,21 @@
+package com.imperialbookbinding.app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.imperialbookbinding.app.entity.ChangeVersion;
+
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersion, Integer> {
+
+    /** Moves the counter on by one, creating the row on first use. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO change_version (id, version) VALUES (1, 1)
+        ON CONFLICT (id) DO UPDATE SET version = version + 1
+    """, nativeQuery = true)
+    void advance();
+
+    @Query(value = "SELECT COALESCE(MAX(version), 0) FROM change_version", nativeQuery = true)
+    long current();
+}
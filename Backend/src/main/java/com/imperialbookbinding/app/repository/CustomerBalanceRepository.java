@@ -0,0 +1,54 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.imperialbookbinding.app.dto.BalanceTotals;
+import com.imperialbookbinding.app.entity.CustomerBalance;
+
+public interface CustomerBalanceRepository extends JpaRepository<CustomerBalance, Long> {
+
+    /**
+     * Adds to a customer's ledger row, creating it on first use. The deltas
+     * are applied in the database so no balance entity is held in the
+     * persistence context of the writing transaction.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO customer_balances
+            (customer_id, total_invoiced, total_paid, outstanding, revision, change_version)
+        VALUES (:customerId, :invoiced, :paid, :invoiced - :paid, 1, :version)
+        ON CONFLICT (customer_id) DO UPDATE SET
+            total_invoiced = total_invoiced + excluded.total_invoiced,
+            total_paid = total_paid + excluded.total_paid,
+            outstanding = outstanding + excluded.outstanding,
+            revision = revision + 1,
+            change_version = excluded.change_version
+    """, nativeQuery = true)
+    void apply(Long customerId, long invoiced, long paid, long version);
+
+    /**
+     * Totals recomputed from the raw invoice and payment tables, one row per
+     * customer. Used to rebuild and verify the ledger, never on the hot path.
+     */
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.BalanceTotals(
+            c.id, COALESCE(inv.total, 0L), COALESCE(pay.total, 0L))
+        FROM Customer c
+        LEFT JOIN (
+            SELECT i.customer.id AS customerId, SUM(i.subtotal) AS total
+            FROM Invoice i
+            GROUP BY i.customer.id
+        ) inv ON inv.customerId = c.id
+        LEFT JOIN (
+            SELECT p.customer.id AS customerId, SUM(p.amountPaid) AS total
+            FROM Payment p
+            GROUP BY p.customer.id
+        ) pay ON pay.customerId = c.id
+        ORDER BY c.id
+    """)
+    List<BalanceTotals> computeTotalsFromHistory();
+}
@@ -1,8 +1,32 @@
 package com.imperialbookbinding.app.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.imperialbookbinding.app.dto.CustomerSuggestion;
+import com.imperialbookbinding.app.dto.CustomerWithBalance;
 import com.imperialbookbinding.app.entity.Customer;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Every customer with its outstanding balance in a single statement,
+     * read from the balance ledger. The pageable may sort on {@code name},
+     * {@code id} or {@code balance}.
+     */
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.CustomerWithBalance(
+            c.id, c.name, c.email, c.phone, COALESCE(b.outstanding, 0L))
+        FROM Customer c
+        LEFT JOIN CustomerBalance b ON b.customerId = c.id
+    """)
+    List<CustomerWithBalance> findAllWithBalance(Pageable pageable);
+
+    @Query("SELECT new com.imperialbookbinding.app.dto.CustomerSuggestion(c.id, c.name, c.phone) FROM Customer c")
+    List<CustomerSuggestion> findAllSuggestions();
+
+    List<Customer> findByChangeVersionGreaterThanOrderById(long version);
+}
@@ -1,12 +1,25 @@
 package com.imperialbookbinding.app.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.imperialbookbinding.app.entity.InvoiceItem;
 
-public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, Long> {
+public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, Long>, InvoiceItemRepositoryCustom {
+    @Transactional(readOnly = true)
     List<InvoiceItem> findByInvoiceId(Long invoiceId);
-    
+
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT it FROM InvoiceItem it
+        JOIN FETCH it.invoice i
+        JOIN FETCH i.customer
+        WHERE i.id IN :invoiceIds
+        ORDER BY i.id, it.id
+    """)
+    List<InvoiceItem> findByInvoiceIdIn(Collection<Long> invoiceIds);
 }
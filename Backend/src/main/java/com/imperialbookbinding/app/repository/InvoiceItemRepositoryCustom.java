@@ -0,0 +1,15 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.List;
+
+import com.imperialbookbinding.app.entity.InvoiceItem;
+
+public interface InvoiceItemRepositoryCustom {
+
+    /**
+     * Inserts the lines as a single JDBC batch on the current transaction's
+     * connection. Each item's invoice must already have an id. The items are
+     * not attached to the persistence context and their ids are left unset.
+     */
+    void insertAll(List<InvoiceItem> items);
+}
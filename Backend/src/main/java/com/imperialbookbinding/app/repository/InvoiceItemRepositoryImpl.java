@@ -0,0 +1,34 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.imperialbookbinding.app.entity.InvoiceItem;
+
+class InvoiceItemRepositoryImpl implements InvoiceItemRepositoryCustom {
+
+    private static final String INSERT = """
+        INSERT INTO invoice_items (invoice_id, description, quantity, rate, amount)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    InvoiceItemRepositoryImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void insertAll(List<InvoiceItem> items) {
+        jdbc.batchUpdate(INSERT, items, BATCH_SIZE, (ps, item) -> {
+            ps.setLong(1, item.getInvoice().getId());
+            ps.setString(2, item.getDescription());
+            ps.setInt(3, item.getQuantity());
+            ps.setLong(4, item.getRate());
+            ps.setLong(5, item.getAmount());
+        });
+    }
+}
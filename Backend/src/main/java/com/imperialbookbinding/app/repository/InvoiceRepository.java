@@ -1,20 +1,69 @@
 package com.imperialbookbinding.app.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.imperialbookbinding.app.dto.AgingInvoiceRow;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.PdfVersion;
 import com.imperialbookbinding.app.entity.Invoice;
 
-public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, InvoiceRepositoryCustom {
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
     
     @Query("""
-    	    SELECT COALESCE(SUM(i.subtotal), 0)
+    	    SELECT COALESCE(SUM(i.subtotal), 0L)
     	    FROM Invoice i
     	    WHERE i.customer.id = :customerId
     	""")
-    	Double totalInvoicedForCustomer(Long customerId);
+    	Long totalInvoicedForCustomer(Long customerId);
+
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.PdfVersion(
+            i.id, i.customer.id, COALESCE(b.changeVersion, 0L))
+        FROM Invoice i
+        LEFT JOIN CustomerBalance b ON b.customerId = i.customer.id
+        WHERE i.id = :invoiceId
+    """)
+    Optional<PdfVersion> findPdfVersion(Long invoiceId);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.customer WHERE i.id IN :ids")
+    List<Invoice> findAllWithCustomer(Collection<Long> ids);
+
+    /**
+     * Every invoice issued up to {@code asOf}, grouped by customer and oldest
+     * first within each, in the order of
+     * {@code idx_invoices_customer_issue_date}. Must be consumed inside a
+     * transaction.
+     */
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.AgingInvoiceRow(
+            i.customer.id, c.name, i.issueDate, i.subtotal)
+        FROM Invoice i JOIN i.customer c
+        WHERE i.issueDate <= :asOf
+        ORDER BY i.customer.id, i.issueDate, i.id
+    """)
+    Stream<AgingInvoiceRow> streamForAging(LocalDate asOf);
+
+    /** List rows for the given invoices, in no particular order. */
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.InvoiceResponse(
+            i.id, i.invoiceNumber, c.id, c.name, i.subtotal, i.issueDate)
+        FROM Invoice i JOIN i.customer c
+        WHERE i.id IN :ids
+    """)
+    List<InvoiceResponse> findResponses(Collection<Long> ids);
+
+    @Query("SELECT i.invoiceNumber FROM Invoice i WHERE i.invoiceNumber LIKE :pattern")
+    List<String> findInvoiceNumbersLike(String pattern);
 
 }
@@ -0,0 +1,34 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.List;
+
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+import com.imperialbookbinding.app.entity.Invoice;
+
+public interface InvoiceRepositoryCustom {
+
+    /**
+     * One keyset page of invoice rows ordered by {@code (issueDate, id)},
+     * read straight into {@link InvoiceResponse}. Only the filters that are
+     * set become predicates, so SQLite can pick the matching index.
+     */
+    List<InvoiceResponse> findPage(InvoiceFilter filter, KeysetCursor after, boolean descending, Integer limit);
+
+    /**
+     * A customer's invoices as statement lines, newest first, that sort
+     * after {@code before} in statement order. Walks
+     * {@code idx_invoices_customer_issue_date} backwards.
+     */
+    List<StatementEntry> findStatementEntries(Long customerId, StatementCursor before, int limit);
+
+    /**
+     * Inserts the invoices as one JDBC batch on the current transaction's
+     * connection and sets their generated ids. The invoices are not attached
+     * to the persistence context.
+     */
+    void insertAll(List<Invoice> invoices);
+}
@@ -0,0 +1,149 @@
+package com.imperialbookbinding.app.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+import com.imperialbookbinding.app.entity.Invoice;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class InvoiceRepositoryImpl implements InvoiceRepositoryCustom {
+
+    private static final String INSERT = """
+        INSERT INTO invoices (invoice_number, customer_id, issue_date, subtotal, notes, status, created_at,
+                              change_version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    InvoiceRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void insertAll(List<Invoice> invoices) {
+        if (invoices.isEmpty()) {
+            return;
+        }
+        // Same java.sql types Hibernate binds, so SQLite stores identical values
+        jdbc.getJdbcTemplate().batchUpdate(INSERT, invoices, invoices.size(), (ps, invoice) -> {
+            ps.setString(1, invoice.getInvoiceNumber());
+            ps.setLong(2, invoice.getCustomer().getId());
+            ps.setDate(3, Date.valueOf(invoice.getIssueDate()));
+            ps.setLong(4, invoice.getSubtotal());
+            ps.setString(5, invoice.getNotes());
+            ps.setString(6, invoice.getStatus());
+            ps.setTimestamp(7, Timestamp.valueOf(invoice.getCreatedAt()));
+            ps.setLong(8, invoice.getChangeVersion());
+        });
+
+        Map<String, Invoice> byNumber = invoices.stream()
+                .collect(Collectors.toMap(Invoice::getInvoiceNumber, Function.identity()));
+        jdbc.query("SELECT id, invoice_number FROM invoices WHERE invoice_number IN (:numbers)",
+                Map.of("numbers", byNumber.keySet()),
+                rs -> {
+                    byNumber.get(rs.getString("invoice_number")).setId(rs.getLong("id"));
+                });
+    }
+
+    @Override
+    public List<StatementEntry> findStatementEntries(Long customerId, StatementCursor before, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.imperialbookbinding.app.dto.StatementEntry(
+                'INVOICE', i.id, i.issueDate, i.invoiceNumber, i.subtotal, 0L)
+            FROM Invoice i
+            WHERE i.customer.id = :customerId
+            """);
+        if (before != null) {
+            // Same-day invoices come before payments, so after a payment all of that day remains
+            jpql.append(before.payment()
+                    ? " AND i.issueDate <= :date"
+                    : " AND (i.issueDate < :date OR (i.issueDate = :date AND i.id < :id))");
+        }
+        jpql.append(" ORDER BY i.issueDate DESC, i.id DESC");
+
+        TypedQuery<StatementEntry> query = em.createQuery(jpql.toString(), StatementEntry.class)
+                .setParameter("customerId", customerId)
+                .setMaxResults(limit);
+        if (before != null) {
+            query.setParameter("date", before.date());
+            if (!before.payment()) {
+                query.setParameter("id", before.id());
+            }
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<InvoiceResponse> findPage(InvoiceFilter filter, KeysetCursor after, boolean descending, Integer limit) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.imperialbookbinding.app.dto.InvoiceResponse(
+                i.id, i.invoiceNumber, c.id, c.name, i.subtotal, i.issueDate)
+            FROM Invoice i JOIN i.customer c
+            WHERE 1 = 1
+            """);
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.customerId() != null) {
+            jpql.append(" AND c.id = :customerId");
+            params.put("customerId", filter.customerId());
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND i.issueDate >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND i.issueDate <= :to");
+            params.put("to", filter.to());
+        }
+        if (filter.status() != null) {
+            jpql.append(" AND i.status = :status");
+            params.put("status", filter.status());
+        }
+        if (filter.numberPrefix() != null && !filter.numberPrefix().isEmpty()) {
+            // A range instead of LIKE so the unique index on invoice_number is usable
+            jpql.append(" AND i.invoiceNumber >= :prefix AND i.invoiceNumber < :prefixEnd");
+            params.put("prefix", filter.numberPrefix());
+            params.put("prefixEnd", filter.numberPrefix() + Character.MAX_VALUE);
+        }
+        if (filter.since() != null) {
+            jpql.append(" AND i.changeVersion > :since");
+            params.put("since", filter.since());
+        }
+        if (after != null) {
+            String cmp = descending ? "<" : ">";
+            jpql.append(" AND (i.issueDate ").append(cmp).append(" :afterDate")
+                .append(" OR (i.issueDate = :afterDate AND i.id ").append(cmp).append(" :afterId))");
+            params.put("afterDate", after.date());
+            params.put("afterId", after.id());
+        }
+
+        String dir = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY i.issueDate").append(dir).append(", i.id").append(dir);
+
+        TypedQuery<InvoiceResponse> query = em.createQuery(jpql.toString(), InvoiceResponse.class);
+        params.forEach(query::setParameter);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+
+/**
+ * The SQLite FTS5 index behind invoice search: one document per invoice,
+ * keyed by the invoice id as rowid, holding the customer name, the notes
+ * and every line description. Hibernate does not know about the table;
+ * it is created by {@link #createIfMissing()} and written on the caller's
+ * transaction, so an invoice and its document commit or roll back
+ * together.
+ */
+@Repository
+public class InvoiceSearchRepository {
+
+    /** A ranked match: the invoice and a highlighted extract of the text that matched. */
+    public record Match(long invoiceId, String snippet) {
+    }
+
+    private static final String INSERT =
+            "INSERT INTO invoice_search (rowid, customer, notes, items) VALUES (?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    InvoiceSearchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Creates the index if it does not exist. A customer-name hit weighs
+     * more than a notes or line hit; diacritics are folded so "Jose"
+     * finds "José".
+     */
+    public void createIfMissing() {
+        jdbc.getJdbcTemplate().execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS invoice_search USING fts5(
+                customer, notes, items, tokenize = 'unicode61 remove_diacritics 2')
+            """);
+        jdbc.getJdbcTemplate().update(
+                "INSERT INTO invoice_search (invoice_search, rank) VALUES ('rank', 'bm25(4.0, 1.0, 1.0)')");
+    }
+
+    /** Indexes newly created invoices; {@code items} may span several of them. */
+    public void add(List<Invoice> invoices, List<InvoiceItem> items) {
+        Map<Long, List<String>> lines = items.stream().collect(Collectors.groupingBy(
+                item -> item.getInvoice().getId(), LinkedHashMap::new,
+                Collectors.mapping(InvoiceItem::getDescription, Collectors.toList())));
+        jdbc.getJdbcTemplate().batchUpdate(INSERT, invoices, invoices.size(), (ps, invoice) -> {
+            ps.setLong(1, invoice.getId());
+            ps.setString(2, invoice.getCustomer().getName());
+            ps.setString(3, invoice.getNotes());
+            ps.setString(4, String.join("\n", lines.getOrDefault(invoice.getId(), List.of())));
+        });
+    }
+
+    /**
+     * Replaces the whole index with documents built in one pass over the
+     * invoice tables, then merges the index segments. Returns the number
+     * of invoices indexed.
+     */
+    public int rebuild() {
+        jdbc.getJdbcTemplate().update("DELETE FROM invoice_search");
+        // Lines are grouped in one sorted pass; a per-invoice subquery would scan them all for every invoice
+        jdbc.getJdbcTemplate().update("""
+            INSERT INTO invoice_search (rowid, customer, notes, items)
+            SELECT i.id, c.name, i.notes, l.items
+            FROM invoices i
+            JOIN customers c ON c.id = i.customer_id
+            LEFT JOIN (
+                SELECT invoice_id, group_concat(description, char(10)) AS items
+                FROM invoice_items
+                GROUP BY invoice_id
+            ) l ON l.invoice_id = i.id
+            """);
+        jdbc.getJdbcTemplate().update("INSERT INTO invoice_search (invoice_search) VALUES ('optimize')");
+        return jdbc.getJdbcTemplate().queryForObject("SELECT count(*) FROM invoice_search", Integer.class);
+    }
+
+    /** True when the index and the invoices table disagree on the invoice count or the newest id. */
+    public boolean isStale() {
+        return !jdbc.getJdbcTemplate().queryForObject("""
+            SELECT (SELECT count(*) || ':' || coalesce(max(rowid), 0) FROM invoice_search)
+                 = (SELECT count(*) || ':' || coalesce(max(id), 0) FROM invoices)
+            """, Boolean.class);
+    }
+
+    /**
+     * One page of matches for an FTS5 query, best first; equally ranked
+     * invoices come newest first.
+     */
+    public List<Match> search(String ftsQuery, int limit, int offset) {
+        List<Match> matches = new ArrayList<>();
+        jdbc.query("""
+            SELECT rowid, snippet(invoice_search, -1, '[', ']', '…', 10)
+            FROM invoice_search
+            WHERE invoice_search MATCH :query
+            ORDER BY rank, rowid DESC
+            LIMIT :limit OFFSET :offset
+            """,
+                Map.of("query", ftsQuery, "limit", limit, "offset", offset),
+                rs -> {
+                    matches.add(new Match(rs.getLong(1), rs.getString(2)));
+                });
+        return matches;
+    }
+}
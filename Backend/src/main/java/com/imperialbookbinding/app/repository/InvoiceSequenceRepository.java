@@ -1,9 +1,23 @@
 package com.imperialbookbinding.app.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.imperialbookbinding.app.entity.InvoiceSequence;
 
 public interface InvoiceSequenceRepository extends JpaRepository<InvoiceSequence, Integer> {
-}
 
+    /**
+     * Records that {@code number} has been issued for {@code year}. Numbers
+     * can commit out of order, so the row only ever moves forward.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO invoice_sequence (seq_year, last_number)
+        VALUES (:year, :number)
+        ON CONFLICT (seq_year) DO UPDATE SET
+            last_number = MAX(last_number, excluded.last_number)
+    """, nativeQuery = true)
+    void advance(Integer year, Integer number);
+}
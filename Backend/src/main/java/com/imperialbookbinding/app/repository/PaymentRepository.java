@@ -1,16 +1,28 @@
 package com.imperialbookbinding.app.repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import com.imperialbookbinding.app.dto.CustomerTotal;
 import com.imperialbookbinding.app.entity.Payment;
 
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentRepositoryCustom {
 
     @Query("""
-        SELECT COALESCE(SUM(p.amountPaid), 0)
+        SELECT COALESCE(SUM(p.amountPaid), 0L)
         FROM Payment p
         WHERE p.customer.id = :customerId
     """)
-    Double totalPaidByCustomer(Long customerId);
+    Long totalPaidByCustomer(Long customerId);
+
+    @Query("""
+        SELECT new com.imperialbookbinding.app.dto.CustomerTotal(p.customer.id, SUM(p.amountPaid))
+        FROM Payment p
+        WHERE p.paymentDate <= :asOf
+        GROUP BY p.customer.id
+    """)
+    List<CustomerTotal> totalPaidByCustomerAsOf(LocalDate asOf);
 }
@@ -0,0 +1,25 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.List;
+
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.PaymentFilter;
+import com.imperialbookbinding.app.dto.PaymentResponse;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+
+public interface PaymentRepositoryCustom {
+
+    /**
+     * One keyset page of payments ordered by {@code (paymentDate, id)}, read
+     * with the customer name in the same statement.
+     */
+    List<PaymentResponse> findPage(PaymentFilter filter, KeysetCursor after, boolean descending, Integer limit);
+
+    /**
+     * A customer's payments as statement lines, newest first, that sort
+     * after {@code before} in statement order. Walks
+     * {@code idx_payments_customer_payment_date} backwards.
+     */
+    List<StatementEntry> findStatementEntries(Long customerId, StatementCursor before, int limit);
+}
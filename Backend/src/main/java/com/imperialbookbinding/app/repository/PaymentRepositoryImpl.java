@@ -0,0 +1,94 @@
+package com.imperialbookbinding.app.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.PaymentFilter;
+import com.imperialbookbinding.app.dto.PaymentResponse;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class PaymentRepositoryImpl implements PaymentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<StatementEntry> findStatementEntries(Long customerId, StatementCursor before, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.imperialbookbinding.app.dto.StatementEntry(
+                'PAYMENT', p.id, p.paymentDate, inv.invoiceNumber, 0L, p.amountPaid)
+            FROM Payment p LEFT JOIN p.invoice inv
+            WHERE p.customer.id = :customerId
+            """);
+        if (before != null) {
+            // After an invoice, that day's payments have all been returned already
+            jpql.append(before.payment()
+                    ? " AND (p.paymentDate < :date OR (p.paymentDate = :date AND p.id < :id))"
+                    : " AND p.paymentDate < :date");
+        }
+        jpql.append(" ORDER BY p.paymentDate DESC, p.id DESC");
+
+        TypedQuery<StatementEntry> query = em.createQuery(jpql.toString(), StatementEntry.class)
+                .setParameter("customerId", customerId)
+                .setMaxResults(limit);
+        if (before != null) {
+            query.setParameter("date", before.date());
+            if (before.payment()) {
+                query.setParameter("id", before.id());
+            }
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<PaymentResponse> findPage(PaymentFilter filter, KeysetCursor after, boolean descending, Integer limit) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.imperialbookbinding.app.dto.PaymentResponse(
+                p.id, c.id, c.name, p.amountPaid, p.paymentDate)
+            FROM Payment p JOIN p.customer c
+            WHERE 1 = 1
+            """);
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.customerId() != null) {
+            jpql.append(" AND c.id = :customerId");
+            params.put("customerId", filter.customerId());
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND p.paymentDate >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND p.paymentDate <= :to");
+            params.put("to", filter.to());
+        }
+        if (filter.since() != null) {
+            jpql.append(" AND p.changeVersion > :since");
+            params.put("since", filter.since());
+        }
+        if (after != null) {
+            String cmp = descending ? "<" : ">";
+            jpql.append(" AND (p.paymentDate ").append(cmp).append(" :afterDate")
+                .append(" OR (p.paymentDate = :afterDate AND p.id ").append(cmp).append(" :afterId))");
+            params.put("afterDate", after.date());
+            params.put("afterId", after.id());
+        }
+
+        String dir = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY p.paymentDate").append(dir).append(", p.id").append(dir);
+
+        TypedQuery<PaymentResponse> query = em.createQuery(jpql.toString(), PaymentResponse.class);
+        params.forEach(query::setParameter);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+}
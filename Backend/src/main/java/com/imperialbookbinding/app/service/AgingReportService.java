@@ -0,0 +1,127 @@
+package com.imperialbookbinding.app.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.AgingBuckets;
+import com.imperialbookbinding.app.dto.AgingInvoiceRow;
+import com.imperialbookbinding.app.dto.AgingReport;
+import com.imperialbookbinding.app.dto.CustomerAging;
+import com.imperialbookbinding.app.dto.CustomerTotal;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.PaymentRepository;
+
+/**
+ * Receivables aging as of a date. Payments up to that date are summed per
+ * customer in one grouped query; invoices are then streamed once, grouped
+ * by customer and oldest first, and each customer's payments are applied
+ * to their oldest invoices before what is left is bucketed by age.
+ */
+@Service
+public class AgingReportService {
+
+    private final InvoiceRepository invoiceRepo;
+    private final PaymentRepository paymentRepo;
+    private final CustomerService customerService;
+
+    public AgingReportService(
+            InvoiceRepository invoiceRepo,
+            PaymentRepository paymentRepo,
+            CustomerService customerService) {
+        this.invoiceRepo = invoiceRepo;
+        this.paymentRepo = paymentRepo;
+        this.customerService = customerService;
+    }
+
+    @Transactional(readOnly = true)
+    public AgingReport agingAsOf(LocalDate asOf) {
+        Map<Long, Long> paid = paymentRepo.totalPaidByCustomerAsOf(asOf).stream()
+                .collect(Collectors.toMap(CustomerTotal::customerId, CustomerTotal::total));
+
+        List<CustomerAging> customers = new ArrayList<>();
+        Accumulator totals = new Accumulator();
+
+        try (Stream<AgingInvoiceRow> rows = invoiceRepo.streamForAging(asOf)) {
+            Iterator<AgingInvoiceRow> it = rows.iterator();
+            Accumulator current = null;
+            Long customerId = null;
+            String customerName = null;
+            long credit = 0;
+
+            while (it.hasNext()) {
+                AgingInvoiceRow row = it.next();
+                if (!row.customerId().equals(customerId)) {
+                    if (current != null) {
+                        add(customers, totals, customerId, customerName, current, credit);
+                    }
+                    customerId = row.customerId();
+                    customerName = row.customerName();
+                    current = new Accumulator();
+                    credit = paid.getOrDefault(customerId, 0L);
+                    paid.remove(customerId);
+                }
+
+                // Oldest invoices are settled first
+                long applied = Math.min(credit, row.amount());
+                credit -= applied;
+                current.add(ChronoUnit.DAYS.between(row.issueDate(), asOf), row.amount() - applied);
+            }
+            if (current != null) {
+                add(customers, totals, customerId, customerName, current, credit);
+            }
+        }
+
+        // Customers who paid but had nothing invoiced by the report date
+        if (!paid.isEmpty()) {
+            Map<Long, Customer> names = customerService.getByIds(paid.keySet());
+            paid.forEach((id, credit) -> add(customers, totals, id,
+                    names.containsKey(id) ? names.get(id).getName() : null, new Accumulator(), credit));
+            customers.sort((a, b) -> a.customerId().compareTo(b.customerId()));
+        }
+
+        return new AgingReport(asOf, customers, totals.toBuckets());
+    }
+
+    private static void add(List<CustomerAging> customers, Accumulator totals,
+            Long customerId, String name, Accumulator buckets, long credit) {
+        if (buckets.total() == 0 && credit == 0) {
+            return;
+        }
+        totals.addAll(buckets);
+        customers.add(new CustomerAging(customerId, name, buckets.toBuckets(), credit));
+    }
+
+    private static final class Accumulator {
+
+        final long[] buckets = new long[4];
+
+        void add(long ageDays, long amount) {
+            int bucket = ageDays <= 30 ? 0 : ageDays <= 60 ? 1 : ageDays <= 90 ? 2 : 3;
+            buckets[bucket] += amount;
+        }
+
+        void addAll(Accumulator other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+        }
+
+        long total() {
+            return buckets[0] + buckets[1] + buckets[2] + buckets[3];
+        }
+
+        AgingBuckets toBuckets() {
+            return new AgingBuckets(buckets[0], buckets[1], buckets[2], buckets[3], total());
+        }
+    }
+}
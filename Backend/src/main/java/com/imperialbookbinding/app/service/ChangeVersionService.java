@@ -0,0 +1,41 @@
+package com.imperialbookbinding.app.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.repository.ChangeVersionRepository;
+
+/**
+ * Change versions for delta sync. Every write to invoices, payments or
+ * customers stamps its rows with {@link #next()}, so a client holding
+ * version {@code v} only needs the rows above it.
+ *
+ * <p>The counter lives in the database and is advanced inside the writing
+ * transaction. SQLite has a single writer, which keeps the write lock from
+ * that statement until commit, so versions are ordered the same way as
+ * commits: once a reader sees version {@code v}, no row at or below it can
+ * still appear.
+ */
+@Service
+public class ChangeVersionService {
+
+    private final ChangeVersionRepository repository;
+
+    public ChangeVersionService(ChangeVersionRepository repository) {
+        this.repository = repository;
+    }
+
+    /** A new version for the rows the current transaction writes. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        repository.advance();
+        return repository.current();
+    }
+
+    /** The latest committed version, or 0 before the first change. */
+    @Transactional(readOnly = true)
+    public long current() {
+        return repository.current();
+    }
+}
@@ -0,0 +1,124 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.BalanceDrift;
+import com.imperialbookbinding.app.dto.BalanceTotals;
+import com.imperialbookbinding.app.dto.LedgerReport;
+import com.imperialbookbinding.app.entity.CustomerBalance;
+import com.imperialbookbinding.app.event.BalanceChangedEvent;
+import com.imperialbookbinding.app.repository.CustomerBalanceRepository;
+
+/**
+ * Maintains the per-customer balance ledger. The write methods must run
+ * inside the transaction that creates the invoice or payment, so the
+ * ledger and the raw tables always commit together.
+ */
+@Service
+public class CustomerBalanceService {
+
+    private final CustomerBalanceRepository repo;
+    private final ChangeVersionService changes;
+    private final ApplicationEventPublisher events;
+
+    public CustomerBalanceService(
+            CustomerBalanceRepository repo, ChangeVersionService changes, ApplicationEventPublisher events) {
+        this.repo = repo;
+        this.changes = changes;
+        this.events = events;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInvoice(Long customerId, long amount) {
+        repo.apply(customerId, amount, 0, changes.next());
+        events.publishEvent(new BalanceChangedEvent(customerId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayment(Long customerId, long amount) {
+        repo.apply(customerId, 0, amount, changes.next());
+        events.publishEvent(new BalanceChangedEvent(customerId));
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerBalance get(Long customerId) {
+        return repo.findById(customerId).orElseGet(() -> {
+            CustomerBalance empty = new CustomerBalance();
+            empty.setCustomerId(customerId);
+            return empty;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public boolean needsInitialBuild() {
+        return repo.count() == 0 && !repo.computeTotalsFromHistory().stream()
+                .allMatch(t -> t.totalInvoiced() == 0 && t.totalPaid() == 0);
+    }
+
+    /**
+     * Compares the ledger against totals recomputed from invoices and
+     * payments and reports every customer whose outstanding amount differs.
+     */
+    @Transactional(readOnly = true)
+    public LedgerReport verify() {
+        return compare(false);
+    }
+
+    /**
+     * Recomputes every ledger row from the raw tables, reporting the drift
+     * that was corrected.
+     */
+    @Transactional
+    public LedgerReport rebuild() {
+        return compare(true);
+    }
+
+    private LedgerReport compare(boolean rebuild) {
+        List<BalanceTotals> totals = repo.computeTotalsFromHistory();
+        Map<Long, CustomerBalance> ledger = repo.findAll().stream()
+                .collect(Collectors.toMap(CustomerBalance::getCustomerId, Function.identity()));
+
+        List<BalanceDrift> drift = new ArrayList<>();
+        List<CustomerBalance> rebuilt = new ArrayList<>();
+        long version = rebuild ? changes.next() : 0;
+
+        for (BalanceTotals t : totals) {
+            long actual = t.totalInvoiced() - t.totalPaid();
+            CustomerBalance row = ledger.get(t.customerId());
+            long recorded = row != null ? row.getOutstanding() : 0;
+
+            if (actual != recorded) {
+                drift.add(new BalanceDrift(t.customerId(), recorded, actual, actual - recorded));
+            }
+
+            if (rebuild) {
+                if (row == null) {
+                    row = new CustomerBalance();
+                    row.setCustomerId(t.customerId());
+                }
+                row.setTotalInvoiced(t.totalInvoiced());
+                row.setTotalPaid(t.totalPaid());
+                row.setOutstanding(actual);
+                row.setRevision(row.getRevision() + 1);
+                row.setChangeVersion(version);
+                rebuilt.add(row);
+            }
+        }
+
+        if (rebuild) {
+            repo.saveAll(rebuilt);
+            events.publishEvent(new BalanceChangedEvent(null));
+        }
+
+        return new LedgerReport(totals.size(), drift.size(), rebuild, drift);
+    }
+}
@@ -0,0 +1,131 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.imperialbookbinding.app.cache.LruCache;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
+
+/**
+ * Customers by id plus the full customer list. Entries are copied on the
+ * way in and on the way out, so a caller changing the {@code Customer} it
+ * got back never affects what other callers see. A
+ * {@link CustomerChangedEvent} drops the customer, or every customer when
+ * it carries no id, and the list once its transaction commits.
+ *
+ * <p>Loads that started before a change committed could otherwise put a
+ * stale copy back after the eviction, so callers take a
+ * {@link #generation()} before reading the database and the put is ignored
+ * if a change has committed since.
+ */
+@Service
+public class CustomerCache {
+
+    private static final String ALL = "all";
+
+    private final LruCache<Long, Customer> byId;
+    private final LruCache<String, List<Customer>> list = new LruCache<>(1);
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomerCache(@Value("${app.customer.cache.max-entries:1024}") int maxEntries) {
+        this.byId = new LruCache<>(maxEntries);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public Customer get(Long id) {
+        Customer cached = byId.get(id);
+        return cached != null ? copy(cached) : null;
+    }
+
+    public void put(Customer customer, long loadedAt) {
+        Customer copy = copy(customer);
+        afterCommit(() -> {
+            synchronized (generation) {
+                if (generation.get() == loadedAt) {
+                    byId.put(copy.getId(), copy);
+                }
+            }
+        });
+    }
+
+    public List<Customer> getAll() {
+        List<Customer> cached = list.get(ALL);
+        return cached != null ? copies(cached) : null;
+    }
+
+    public void putAll(List<Customer> customers, long loadedAt) {
+        List<Customer> copy = copies(customers);
+        afterCommit(() -> {
+            synchronized (generation) {
+                if (generation.get() == loadedAt) {
+                    list.put(ALL, copy);
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            if (event.customerId() == null) {
+                byId.clear();
+            } else {
+                byId.remove(event.customerId());
+            }
+            list.clear();
+        }
+    }
+
+    /**
+     * A customer read inside a transaction may have been created by it, so
+     * it is only cached once that transaction has committed.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static List<Customer> copies(List<Customer> customers) {
+        return customers.stream().map(CustomerCache::copy).toList();
+    }
+
+    private static Customer copy(Customer customer) {
+        Customer copy = new Customer();
+        copy.setId(customer.getId());
+        copy.setName(customer.getName());
+        copy.setEmail(customer.getEmail());
+        copy.setPhone(customer.getPhone());
+        copy.setAddress(customer.getAddress());
+        copy.setCreatedAt(customer.getCreatedAt());
+        copy.setChangeVersion(customer.getChangeVersion());
+        return copy;
+    }
+
+    public LruCache.CacheStats stats() {
+        return byId.stats();
+    }
+
+    public LruCache.CacheStats listStats() {
+        return list.stats();
+    }
+}
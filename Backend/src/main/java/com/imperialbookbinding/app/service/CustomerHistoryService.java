@@ -0,0 +1,89 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.CustomerHistory;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.PaymentRepository;
+
+/**
+ * Customer statements, newest line first. A page reads at most
+ * {@code limit + 1} rows from each of two index-ordered queries and merges
+ * them; the running balance is worked backwards from the ledger's current
+ * outstanding amount, and later pages take it from the cursor. Page cost
+ * does not depend on how much history the customer has.
+ */
+@Service
+public class CustomerHistoryService {
+
+    /** Invoices sort before payments dated the same day; newest first reverses that. */
+    private static final Comparator<StatementEntry> NEWEST_FIRST = Comparator
+            .comparing(StatementEntry::date)
+            .thenComparing(StatementEntry::isPayment)
+            .thenComparing(StatementEntry::id)
+            .reversed();
+
+    private final CustomerService customerService;
+    private final CustomerBalanceService balanceService;
+    private final InvoiceRepository invoiceRepo;
+    private final PaymentRepository paymentRepo;
+
+    public CustomerHistoryService(
+            CustomerService customerService,
+            CustomerBalanceService balanceService,
+            InvoiceRepository invoiceRepo,
+            PaymentRepository paymentRepo) {
+        this.customerService = customerService;
+        this.balanceService = balanceService;
+        this.invoiceRepo = invoiceRepo;
+        this.paymentRepo = paymentRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerHistory getHistory(Long customerId, StatementCursor before, int limit) {
+        Customer customer = customerService.getById(customerId);
+        long outstanding = balanceService.get(customerId).getOutstanding();
+
+        Iterator<StatementEntry> invoices =
+                invoiceRepo.findStatementEntries(customerId, before, limit + 1).iterator();
+        Iterator<StatementEntry> payments =
+                paymentRepo.findStatementEntries(customerId, before, limit + 1).iterator();
+        StatementEntry invoice = next(invoices);
+        StatementEntry payment = next(payments);
+
+        long balance = before != null ? before.balance() : outstanding;
+        List<StatementEntry> entries = new ArrayList<>(limit);
+        while (entries.size() < limit && (invoice != null || payment != null)) {
+            StatementEntry entry;
+            if (payment == null || (invoice != null && NEWEST_FIRST.compare(invoice, payment) < 0)) {
+                entry = invoice;
+                invoice = next(invoices);
+            } else {
+                entry = payment;
+                payment = next(payments);
+            }
+            entries.add(entry.withBalance(balance));
+            balance = balance - entry.debit() + entry.credit();
+        }
+
+        String nextCursor = null;
+        if (invoice != null || payment != null) {
+            StatementEntry last = entries.get(entries.size() - 1);
+            nextCursor = new StatementCursor(last.date(), last.isPayment(), last.id(), balance).encode();
+        }
+        return new CustomerHistory(customer.getId(), customer.getName(), outstanding, entries, nextCursor);
+    }
+
+    private static StatementEntry next(Iterator<StatementEntry> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+}
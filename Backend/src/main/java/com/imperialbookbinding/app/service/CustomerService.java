@@ -1,56 +1,155 @@
 package com.imperialbookbinding.app.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.imperialbookbinding.app.dto.CustomerWithBalance;
 import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
 import com.imperialbookbinding.app.repository.CustomerRepository;
-import com.imperialbookbinding.app.repository.InvoiceRepository;
-import com.imperialbookbinding.app.repository.PaymentRepository;
 
 @Service
 public class CustomerService {
 
+    /** What {@link #getCustomersWithBalance(Integer, Integer, String, Sort.Direction)} can sort by. */
+    public static final Set<String> BALANCE_SORTS = Set.of("id", "name", "balance");
+
 	@Autowired
     private CustomerRepository repository;
 	@Autowired
-    private PaymentRepository paymentRepo;
+    private CustomerBalanceService balanceService;
+	@Autowired
+    private CustomerCache cache;
+	@Autowired
+    private CustomerTypeahead typeahead;
+	@Autowired
+    private ChangeVersionService changes;
 	@Autowired
-    private InvoiceRepository invoiceRepo;
+    private ApplicationEventPublisher events;
 
 
 
+    @Transactional
     public Customer create(Customer customer) {
-        return repository.save(customer);
+        customer.setChangeVersion(changes.next());
+        Customer saved = repository.save(customer);
+        typeahead.add(saved);
+        events.publishEvent(new CustomerChangedEvent(saved.getId()));
+        return saved;
     }
 
+    /**
+     * Every customer, served from {@link CustomerCache} after the first call.
+     * The returned list is unmodifiable; its customers are the caller's own.
+     */
+    @Transactional(readOnly = true)
     public List<Customer> getAll() {
-        return repository.findAll();
+        List<Customer> cached = cache.getAll();
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        List<Customer> customers = repository.findAll();
+        cache.putAll(customers, generation);
+        return customers;
     }
 
+    /** Customers written after change version {@code since}, by id. */
+    @Transactional(readOnly = true)
+    public List<Customer> getChangedSince(long since) {
+        return repository.findByChangeVersionGreaterThanOrderById(since);
+    }
+
+    @Transactional(readOnly = true)
     public Customer getById(Long id) {
-        return repository.findById(id)
+        Customer cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        Customer customer = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
+        cache.put(customer, generation);
+        return customer;
     }
-    public Double getBalance(Long customerId) {
-        Double totalInvoiced = invoiceRepo.totalInvoicedForCustomer(customerId);
-        Double totalPaid = paymentRepo.totalPaidByCustomer(customerId);
-        return totalInvoiced - totalPaid;
+
+    /**
+     * Looks up many customers, querying only those not already cached; ids
+     * that do not exist are simply missing from the map.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Customer> getByIds(Collection<Long> ids) {
+        Map<Long, Customer> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Customer cached = cache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = cache.generation();
+            for (Customer customer : repository.findAllById(missing)) {
+                cache.put(customer, generation);
+                found.put(customer.getId(), customer);
+            }
+        }
+        return found;
+    }
+
+    /** Outstanding balance in paise. */
+    @Transactional(readOnly = true)
+    public long getBalance(Long customerId) {
+        return balanceService.get(customerId).getOutstanding();
     }
     
+    @Transactional(readOnly = true)
     public List<CustomerWithBalance> getCustomersWithBalance() {
-        return repository.findAll().stream()
-            .map(c -> new CustomerWithBalance(
-                c.getId(),
-                c.getName(),
-                c.getEmail(),
-                c.getPhone(),
-                getBalance(c.getId())
-            ))
-            .toList();
+        return repository.findAllWithBalance(Pageable.unpaged(Sort.by("id")));
+    }
+
+    /**
+     * Customers with balances, optionally one page at a time. {@code sort} is
+     * one of {@link #BALANCE_SORTS}; balance descending is what the "who owes
+     * us most" view uses.
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerWithBalance> getCustomersWithBalance(
+            Integer page, Integer size, String sort, Sort.Direction direction) {
+        Sort order = balanceSort(sort, direction);
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged(order)
+                : PageRequest.of(page != null ? page : 0, size != null ? size : 50, order);
+        return repository.findAllWithBalance(pageable);
+    }
+
+    private Sort balanceSort(String property, Sort.Direction direction) {
+        if ("balance".equals(property)) {
+            return JpaSort.unsafe(direction, "COALESCE(b.outstanding, 0)")
+                    .and(Sort.by("id"));
+        }
+        if ("name".equals(property)) {
+            return Sort.by(direction, "name").and(Sort.by("id"));
+        }
+        if ("id".equals(property)) {
+            return Sort.by(direction, "id");
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + property);
     }
     
     
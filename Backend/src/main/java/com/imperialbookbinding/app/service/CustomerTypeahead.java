@@ -0,0 +1,190 @@
+package com.imperialbookbinding.app.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.imperialbookbinding.app.cache.PrefixIndex;
+import com.imperialbookbinding.app.dto.CustomerSuggestion;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
+import com.imperialbookbinding.app.repository.CustomerRepository;
+
+/**
+ * Customer typeahead served from memory. Names are indexed lower-cased
+ * with accents and punctuation dropped, both whole ("anita rao") and from
+ * each later word ("rao"); phone numbers are indexed as digits, with and
+ * without a country code. A name or phone that starts with the query
+ * ranks above one where only a later word does, then alphabetically.
+ *
+ * <p>Built by {@link #rebuild()} at startup. {@link CustomerService#create}
+ * adds each new customer once its transaction commits; a
+ * {@link CustomerChangedEvent} without a customer id, published after bulk
+ * changes, makes the next lookup rebuild.
+ */
+@Service
+public class CustomerTypeahead {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[\\d\\s()+-]+");
+    private static final int NATIONAL_DIGITS = 10;
+
+    /**
+     * One generation of the key arrays, swapped whole on every change. The
+     * customer map is shared between generations and only gains or replaces
+     * entries, so any id in the arrays resolves.
+     */
+    private record Snapshot(
+            PrefixIndex leading, PrefixIndex laterWords, Map<Long, CustomerSuggestion> customers) {
+    }
+
+    private final CustomerRepository repository;
+
+    private volatile Snapshot snapshot =
+            new Snapshot(PrefixIndex.EMPTY, PrefixIndex.EMPTY, new ConcurrentHashMap<>());
+    private volatile boolean stale = true;
+
+    public CustomerTypeahead(CustomerRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Up to {@code limit} customers matching {@code query}, best first. */
+    public List<CustomerSuggestion> suggest(String query, int limit) {
+        if (stale) {
+            rebuild();
+        }
+        String prefix = PHONE_QUERY.matcher(query).matches() ? digits(query) : normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        Map<Long, CustomerSuggestion> found = new LinkedHashMap<>();
+        for (PrefixIndex index : List.of(current.leading(), current.laterWords())) {
+            index.forEachMatch(prefix, id -> {
+                found.putIfAbsent(id, current.customers().get(id));
+                return found.size() < limit;
+            });
+            if (found.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(found.values());
+    }
+
+    /** Reloads every customer; changes committed meanwhile wait and are applied on top. */
+    public synchronized void rebuild() {
+        stale = false;
+        List<CustomerSuggestion> all = repository.findAllSuggestions();
+
+        List<PrefixIndex.Entry> leading = new ArrayList<>(all.size() * 2);
+        List<PrefixIndex.Entry> laterWords = new ArrayList<>(all.size());
+        Map<Long, CustomerSuggestion> customers = new ConcurrentHashMap<>(all.size() * 2);
+        for (CustomerSuggestion customer : all) {
+            keys(customer, leading, laterWords);
+            customers.put(customer.id(), customer);
+        }
+        snapshot = new Snapshot(PrefixIndex.of(leading), PrefixIndex.of(laterWords), customers);
+    }
+
+    /** Indexes a new or changed customer when the current transaction commits. */
+    public void add(Customer customer) {
+        CustomerSuggestion suggestion = new CustomerSuggestion(customer.getId(), customer.getName(), customer.getPhone());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(suggestion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(suggestion);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.customerId() == null) {
+            stale = true;
+        }
+    }
+
+    public int size() {
+        return snapshot.customers().size();
+    }
+
+    private synchronized void apply(CustomerSuggestion customer) {
+        Snapshot current = snapshot;
+        PrefixIndex leading = current.leading();
+        PrefixIndex laterWords = current.laterWords();
+
+        CustomerSuggestion previous = current.customers().get(customer.id());
+        if (previous != null) {
+            List<PrefixIndex.Entry> oldLeading = new ArrayList<>();
+            List<PrefixIndex.Entry> oldLaterWords = new ArrayList<>();
+            keys(previous, oldLeading, oldLaterWords);
+            for (PrefixIndex.Entry entry : oldLeading) {
+                leading = leading.without(entry.key(), entry.id());
+            }
+            for (PrefixIndex.Entry entry : oldLaterWords) {
+                laterWords = laterWords.without(entry.key(), entry.id());
+            }
+        }
+
+        List<PrefixIndex.Entry> newLeading = new ArrayList<>();
+        List<PrefixIndex.Entry> newLaterWords = new ArrayList<>();
+        keys(customer, newLeading, newLaterWords);
+        for (PrefixIndex.Entry entry : newLeading) {
+            leading = leading.with(entry.key(), entry.id());
+        }
+        for (PrefixIndex.Entry entry : newLaterWords) {
+            laterWords = laterWords.with(entry.key(), entry.id());
+        }
+
+        current.customers().put(customer.id(), customer);
+        snapshot = new Snapshot(leading, laterWords, current.customers());
+    }
+
+    private static void keys(
+            CustomerSuggestion customer, List<PrefixIndex.Entry> leading, List<PrefixIndex.Entry> laterWords) {
+        long id = customer.id();
+        String name = normalize(customer.name());
+        if (!name.isEmpty()) {
+            leading.add(new PrefixIndex.Entry(name, id));
+            for (int space = name.indexOf(' '); space >= 0; space = name.indexOf(' ', space + 1)) {
+                laterWords.add(new PrefixIndex.Entry(name.substring(space + 1), id));
+            }
+        }
+        String phone = digits(customer.phone());
+        if (!phone.isEmpty()) {
+            leading.add(new PrefixIndex.Entry(phone, id));
+            if (phone.length() > NATIONAL_DIGITS) {
+                leading.add(new PrefixIndex.Entry(phone.substring(phone.length() - NATIONAL_DIGITS), id));
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String digits(String text) {
+        return text == null ? "" : text.replaceAll("\\D", "");
+    }
+}
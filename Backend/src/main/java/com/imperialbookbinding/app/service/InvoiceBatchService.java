@@ -0,0 +1,222 @@
+package com.imperialbookbinding.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.BatchInvoiceResult;
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.event.InvoiceCreatedEvent;
+import com.imperialbookbinding.app.metrics.TransactionTimer;
+import com.imperialbookbinding.app.money.Money;
+import com.imperialbookbinding.app.repository.InvoiceItemRepository;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.InvoiceSearchRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates many invoices in one call for month-end billing runs. Customers
+ * are resolved in one query and invalid entries are rejected up front; the
+ * rest are written a chunk per transaction, with a block of consecutive
+ * numbers, one batch of invoices, one batch of lines, one batch of search
+ * documents and one ledger update per customer.
+ *
+ * <p>A chunk that fails as a whole is retried one invoice at a time, so a
+ * bad entry only fails itself. Each chunk is timed as
+ * {@code billing.invoice.batch.chunk}, and its invoices count towards
+ * {@code billing.invoice.lines} once it commits.
+ */
+@Service
+public class InvoiceBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceBatchService.class);
+
+    private final InvoiceRepository invoiceRepo;
+    private final InvoiceItemRepository itemRepo;
+    private final CustomerService customerService;
+    private final InvoiceNumberService numberService;
+    private final CustomerBalanceService balanceService;
+    private final InvoiceSearchRepository searchRepo;
+    private final ChangeVersionService changes;
+    private final InvoiceService invoiceService;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final DistributionSummary invoiceLines;
+    private final int chunkSize;
+
+    public InvoiceBatchService(
+            InvoiceRepository invoiceRepo,
+            InvoiceItemRepository itemRepo,
+            CustomerService customerService,
+            InvoiceNumberService numberService,
+            CustomerBalanceService balanceService,
+            InvoiceSearchRepository searchRepo,
+            ChangeVersionService changes,
+            InvoiceService invoiceService,
+            ApplicationEventPublisher events,
+            TransactionTemplate tx,
+            MeterRegistry meters,
+            @Value("${app.invoice.batch.chunk-size:50}") int chunkSize) {
+        this.invoiceRepo = invoiceRepo;
+        this.itemRepo = itemRepo;
+        this.customerService = customerService;
+        this.numberService = numberService;
+        this.balanceService = balanceService;
+        this.searchRepo = searchRepo;
+        this.changes = changes;
+        this.invoiceService = invoiceService;
+        this.events = events;
+        this.tx = tx;
+        this.meters = meters;
+        // Same meter InvoiceService records to
+        this.invoiceLines = DistributionSummary.builder("billing.invoice.lines")
+                .description("Line items per created invoice")
+                .register(meters);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public List<BatchInvoiceResult> createInvoices(List<CreateInvoiceRequest> requests) {
+        BatchInvoiceResult[] results = new BatchInvoiceResult[requests.size()];
+
+        Map<Long, Customer> customers = customerService.getByIds(requests.stream()
+                .map(r -> r == null ? null : r.customerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i), customers);
+            if (error != null) {
+                results[i] = BatchInvoiceResult.failed(i, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                List<Invoice> created = tx.execute(status -> writeChunk(chunk, requests, customers));
+                for (int i = 0; i < chunk.size(); i++) {
+                    Invoice invoice = created.get(i);
+                    results[chunk.get(i)] = BatchInvoiceResult.created(
+                            chunk.get(i), invoice.getId(), invoice.getInvoiceNumber());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Invoice batch chunk of {} failed, retrying one by one", chunk.size(), e);
+                for (int index : chunk) {
+                    results[index] = createOne(index, requests.get(index));
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<Invoice> writeChunk(
+            List<Integer> chunk, List<CreateInvoiceRequest> requests, Map<Long, Customer> customers) {
+
+        List<Integer> lineCounts = new ArrayList<>(chunk.size());
+        TransactionTimer.start(meters, "billing.invoice.batch.chunk",
+                () -> lineCounts.forEach(invoiceLines::record));
+
+        List<String> numbers = numberService.nextInvoiceNumbers(chunk.size());
+        long version = changes.next();
+
+        List<Invoice> invoices = new ArrayList<>(chunk.size());
+        List<InvoiceItem> items = new ArrayList<>();
+        Map<Long, Long> invoicedByCustomer = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateInvoiceRequest request = requests.get(chunk.get(i));
+
+            Invoice invoice = new Invoice();
+            invoice.setCustomer(customers.get(request.customerId));
+            invoice.setIssueDate(LocalDate.now());
+            invoice.setInvoiceNumber(numbers.get(i));
+            invoice.setStatus("ISSUED");
+            invoice.setNotes(request.notes);
+            invoice.setChangeVersion(version);
+
+            long subtotal = 0;
+            for (CreateInvoiceRequest.Item itemReq : request.items) {
+                InvoiceItem item = new InvoiceItem();
+                item.setInvoice(invoice);
+                item.setDescription(itemReq.description);
+                item.setQuantity(itemReq.quantity);
+                item.setRate(itemReq.rate);
+
+                long amount = Money.times(itemReq.rate, itemReq.quantity);
+                item.setAmount(amount);
+                subtotal += amount;
+
+                items.add(item);
+            }
+            invoice.setSubtotal(subtotal);
+            lineCounts.add(request.items.size());
+            invoicedByCustomer.merge(request.customerId, subtotal, Long::sum);
+            invoices.add(invoice);
+        }
+
+        invoiceRepo.insertAll(invoices);
+        itemRepo.insertAll(items);
+        searchRepo.add(invoices, items);
+        invoicedByCustomer.forEach(balanceService::recordInvoice);
+
+        for (Invoice invoice : invoices) {
+            events.publishEvent(new InvoiceCreatedEvent(invoice.getId(), invoice.getCustomer().getId()));
+        }
+        return invoices;
+    }
+
+    private BatchInvoiceResult createOne(int index, CreateInvoiceRequest request) {
+        try {
+            Invoice invoice = invoiceService.createInvoice(request);
+            return BatchInvoiceResult.created(index, invoice.getId(), invoice.getInvoiceNumber());
+        } catch (RuntimeException e) {
+            return BatchInvoiceResult.failed(index, e.getMessage());
+        }
+    }
+
+    private static String validate(CreateInvoiceRequest request, Map<Long, Customer> customers) {
+        if (request == null || request.customerId == null) {
+            return "Customer is required";
+        }
+        if (!customers.containsKey(request.customerId)) {
+            return "Customer not found";
+        }
+        if (request.items == null || request.items.isEmpty()) {
+            return "Invoice has no items";
+        }
+        for (int i = 0; i < request.items.size(); i++) {
+            CreateInvoiceRequest.Item item = request.items.get(i);
+            if (item == null || item.description == null || item.description.isBlank()) {
+                return "Item " + (i + 1) + " has no description";
+            }
+            if (item.quantity == null || item.quantity <= 0) {
+                return "Item " + (i + 1) + " needs a positive quantity";
+            }
+            if (item.rate == null || item.rate < 0) {
+                return "Item " + (i + 1) + " needs a rate of zero or more";
+            }
+        }
+        return null;
+    }
+}
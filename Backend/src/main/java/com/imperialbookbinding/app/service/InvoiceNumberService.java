@@ -1,39 +1,200 @@
 package com.imperialbookbinding.app.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.imperialbookbinding.app.entity.InvoiceSequence;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
 import com.imperialbookbinding.app.repository.InvoiceSequenceRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+/**
+ * Hands out invoice numbers from an in-memory counter per year. A number
+ * taken by a transaction that rolls back is returned and handed out again
+ * before the counter moves on, so the committed sequence has no gaps; a
+ * reused number may therefore be lower than one committed just before it.
+ */
 @Service
 public class InvoiceNumberService {
 
     private final InvoiceSequenceRepository repo;
+    private final InvoiceRepository invoiceRepo;
+    private final ConcurrentMap<Integer, YearSequence> years = new ConcurrentHashMap<>();
 
-    public InvoiceNumberService(InvoiceSequenceRepository repo) {
+    private final Timer takeTimer;
+    private final Counter issued;
+    private final Counter released;
+
+    public InvoiceNumberService(
+            InvoiceSequenceRepository repo, InvoiceRepository invoiceRepo, MeterRegistry meters) {
         this.repo = repo;
+        this.invoiceRepo = invoiceRepo;
+        this.takeTimer = Timer.builder("billing.invoice.number.take")
+                .description("Taking a number and advancing the sequence row")
+                .register(meters);
+        this.issued = Counter.builder("billing.invoice.numbers.issued")
+                .description("Numbers handed out, including ones later released")
+                .register(meters);
+        this.released = Counter.builder("billing.invoice.numbers.released")
+                .description("Numbers returned by rolled-back transactions")
+                .register(meters);
+        Gauge.builder("billing.invoice.numbers.pending_reuse", years,
+                        y -> y.values().stream().mapToInt(YearSequence::pendingReuse).sum())
+                .description("Released numbers waiting to be handed out again")
+                .register(meters);
     }
 
-    @Transactional
+    /**
+     * Takes the next number for the current year. Must run inside the
+     * transaction that saves the invoice: the number is only spent if that
+     * transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
     public String nextInvoiceNumber() {
+        Timer.Sample sample = Timer.start();
+        int year = LocalDate.now().getYear();
+        YearSequence sequence = years.computeIfAbsent(year, this::load);
+
+        int number = sequence.take();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // STATUS_UNKNOWN may have committed; leave it to reconcile()
+                if (status == STATUS_ROLLED_BACK) {
+                    sequence.release(number);
+                    released.increment();
+                }
+            }
+        });
+
+        repo.advance(year, number);
+        issued.increment();
+        sample.stop(takeTimer);
+        return format(year, number);
+    }
+
+    /**
+     * Takes {@code count} consecutive numbers for the current year, for bulk
+     * runs. Released numbers are left for single invoices so the block stays
+     * contiguous; on rollback the whole block is released.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> nextInvoiceNumbers(int count) {
+        Timer.Sample sample = Timer.start();
+        int year = LocalDate.now().getYear();
+        YearSequence sequence = years.computeIfAbsent(year, this::load);
+
+        int first = sequence.takeBlock(count);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    for (int n = first; n < first + count; n++) {
+                        sequence.release(n);
+                    }
+                    released.increment(count);
+                }
+            }
+        });
+
+        repo.advance(year, first + count - 1);
+        issued.increment(count);
+        sample.stop(takeTimer);
+
+        List<String> numbers = new ArrayList<>(count);
+        for (int n = first; n < first + count; n++) {
+            numbers.add(format(year, n));
+        }
+        return numbers;
+    }
+
+    /**
+     * Reloads the current year's counter so it resumes after both the
+     * highest stored invoice number and the sequence row, whichever is
+     * ahead. Gaps in the stored numbers are left alone: only numbers
+     * released by a rollback in this run are handed out again.
+     */
+    @Transactional
+    public YearSequence reconcile() {
         int year = LocalDate.now().getYear();
+        YearSequence sequence = load(year);
+        years.put(year, sequence);
+        return sequence;
+    }
+
+    private YearSequence load(int year) {
+        String prefix = String.format("IB-%d-", year);
+
+        // Parsed rather than MAX(invoice_number): past 9999 the text no longer sorts by number
+        int last = 0;
+        for (String invoiceNumber : invoiceRepo.findInvoiceNumbersLike(prefix + "%")) {
+            try {
+                last = Math.max(last, Integer.parseInt(invoiceNumber.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                // Hand-entered numbers are not part of the sequence
+            }
+        }
+
+        int recorded = repo.findById(year).map(InvoiceSequence::getLastNumber).orElse(0);
+        if (recorded < last) {
+            repo.advance(year, last);
+        }
+        return new YearSequence(year, Math.max(last, recorded));
+    }
+
+    private static String format(int year, int number) {
+        return String.format("IB-%d-%04d", year, number);
+    }
+
+    public static final class YearSequence {
+
+        private final int year;
+        private final AtomicInteger last;
+        private final ConcurrentSkipListSet<Integer> released = new ConcurrentSkipListSet<>();
+
+        YearSequence(int year, int last) {
+            this.year = year;
+            this.last = new AtomicInteger(last);
+        }
+
+        int take() {
+            Integer reused = released.pollFirst();
+            return reused != null ? reused : last.incrementAndGet();
+        }
+
+        int takeBlock(int count) {
+            return last.getAndAdd(count) + 1;
+        }
+
+        void release(int number) {
+            released.add(number);
+        }
 
-        InvoiceSequence seq = repo.findById(year)
-                .orElseGet(() -> {
-                    InvoiceSequence s = new InvoiceSequence();
-                    s.setYear(year);
-                    s.setLastNumber(0);
-                    return s;
-                });
+        public int year() {
+            return year;
+        }
 
-        int next = seq.getLastNumber() + 1;
-        seq.setLastNumber(next);
-        repo.save(seq);
+        public int lastIssued() {
+            return last.get();
+        }
 
-        return String.format("IB-%d-%04d", year, next);
+        public int pendingReuse() {
+            return released.size();
+        }
     }
 }
@@ -0,0 +1,58 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.imperialbookbinding.app.cache.LruCache;
+import com.imperialbookbinding.app.dto.CachedPdf;
+import com.imperialbookbinding.app.dto.PdfVersion;
+
+/**
+ * Recently rendered invoice PDFs, keyed by invoice id. An entry is only
+ * served while its version still matches; {@link InvoicePdfRenderer}
+ * drops a customer's entries once a change to their balance commits.
+ */
+@Service
+public class InvoicePdfCache {
+
+    private final LruCache<Long, CachedPdf> cache;
+
+    public InvoicePdfCache(@Value("${app.pdf.cache.max-entries:256}") int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    public CachedPdf get(PdfVersion version) {
+        CachedPdf cached = cache.get(version.invoiceId());
+        return cached != null && cached.version().equals(version) ? cached : null;
+    }
+
+    public void put(CachedPdf pdf) {
+        cache.put(pdf.version().invoiceId(), pdf);
+    }
+
+    /**
+     * Removes every cached PDF of the customer and returns their invoice ids.
+     */
+    public List<Long> evictCustomer(Long customerId) {
+        List<Long> evicted = new ArrayList<>();
+        cache.removeIf((invoiceId, pdf) -> {
+            if (pdf.version().customerId().equals(customerId)) {
+                evicted.add(invoiceId);
+                return true;
+            }
+            return false;
+        });
+        return evicted;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public LruCache.CacheStats stats() {
+        return cache.stats();
+    }
+}
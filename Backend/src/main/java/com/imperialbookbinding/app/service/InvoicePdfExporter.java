@@ -0,0 +1,266 @@
+package com.imperialbookbinding.app.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.cache.LruCache;
+import com.imperialbookbinding.app.dto.CachedPdf;
+import com.imperialbookbinding.app.dto.ExportProgress;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.PdfVersion;
+import com.imperialbookbinding.app.entity.CustomerBalance;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.repository.CustomerBalanceRepository;
+import com.imperialbookbinding.app.repository.InvoiceItemRepository;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams many invoice PDFs into one ZIP. Invoices are read in chunks on
+ * the streaming thread, three queries per chunk, so the database is only
+ * held briefly; rendering is CPU-only and spread over a capped pool. Each
+ * PDF is written to the archive as soon as it finishes, so at most one
+ * chunk of documents is ever held in memory.
+ *
+ * <p>An export that is never streamed, because the client left before the
+ * body ran, expires after {@code app.pdf.export.pending-ttl-seconds}; the
+ * next {@link #start} sweeps it out.
+ */
+@Service
+public class InvoicePdfExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePdfExporter.class);
+
+    private final InvoiceRepository invoiceRepo;
+    private final InvoiceItemRepository itemRepo;
+    private final CustomerBalanceRepository balanceRepo;
+    private final InvoicePdfService pdfService;
+    private final InvoicePdfCache cache;
+
+    private final int chunkSize;
+    private final Duration pendingTtl;
+    private final ExecutorService executor;
+    /** Exports not yet finished. Streaming ones stay until done; unstarted ones until they expire. */
+    private final Map<String, Progress> active = new ConcurrentHashMap<>();
+    /** The most recent finished exports, kept for a last progress poll. */
+    private final LruCache<String, Progress> finished = new LruCache<>(64);
+
+    public InvoicePdfExporter(
+            InvoiceRepository invoiceRepo,
+            InvoiceItemRepository itemRepo,
+            CustomerBalanceRepository balanceRepo,
+            InvoicePdfService pdfService,
+            InvoicePdfCache cache,
+            @Value("${app.pdf.export.max-parallel:0}") int maxParallel,
+            @Value("${app.pdf.export.chunk-size:32}") int chunkSize,
+            @Value("${app.pdf.export.pending-ttl-seconds:600}") long pendingTtlSeconds) {
+        this.invoiceRepo = invoiceRepo;
+        this.itemRepo = itemRepo;
+        this.balanceRepo = balanceRepo;
+        this.pdfService = pdfService;
+        this.cache = cache;
+        this.chunkSize = chunkSize;
+        this.pendingTtl = Duration.ofSeconds(pendingTtlSeconds);
+
+        int threads = maxParallel > 0
+                ? maxParallel
+                : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "pdf-export-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Registers an export of every invoice matching the filter and returns
+     * its id; nothing is rendered until {@link #write} runs.
+     */
+    @Transactional(readOnly = true)
+    public String start(InvoiceFilter filter) {
+        expireUnstarted(Instant.now().minus(pendingTtl));
+        List<Long> ids = invoiceRepo.findPage(filter, null, false, null).stream()
+                .map(InvoiceResponse::id)
+                .toList();
+        String exportId = UUID.randomUUID().toString();
+        active.put(exportId, new Progress(exportId, ids));
+        return exportId;
+    }
+
+    /**
+     * Drops exports registered before {@code startedBefore} whose stream
+     * never began; their progress reads {@code EXPIRED}. Returns how many.
+     */
+    public int expireUnstarted(Instant startedBefore) {
+        int expired = 0;
+        for (Progress progress : active.values()) {
+            if (progress.startedAt.isBefore(startedBefore) && progress.claimed.compareAndSet(false, true)) {
+                progress.state = "EXPIRED";
+                finish(progress);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    public ExportProgress progress(String exportId) {
+        Progress progress = active.get(exportId);
+        if (progress == null) {
+            progress = finished.get(exportId);
+        }
+        if (progress == null) {
+            throw new RuntimeException("Export not found");
+        }
+        return progress.snapshot();
+    }
+
+    public void write(String exportId, OutputStream out) throws IOException {
+        Progress progress = active.get(exportId);
+        if (progress == null) {
+            throw new RuntimeException("Export not found");
+        }
+        if (!progress.claimed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Export " + exportId + " is already being streamed");
+        }
+        progress.state = "RUNNING";
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PDFs are already compressed; spend as little CPU as possible
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            for (int from = 0; from < progress.invoiceIds.size(); from += chunkSize) {
+                List<Long> chunk = progress.invoiceIds.subList(
+                        from, Math.min(from + chunkSize, progress.invoiceIds.size()));
+                writeChunk(chunk, zip, progress);
+            }
+            progress.state = "DONE";
+        } catch (IOException | RuntimeException e) {
+            progress.state = "FAILED";
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.state = "FAILED";
+            throw new IOException("Export interrupted", e);
+        } finally {
+            finish(progress);
+        }
+    }
+
+    private void finish(Progress progress) {
+        progress.finishedAt = Instant.now();
+        finished.put(progress.exportId, progress);
+        active.remove(progress.exportId);
+    }
+
+    private void writeChunk(List<Long> invoiceIds, ZipOutputStream zip, Progress progress)
+            throws IOException, InterruptedException {
+
+        List<Invoice> invoices = invoiceRepo.findAllWithCustomer(invoiceIds);
+        Map<Long, List<InvoiceItem>> items = itemRepo.findByInvoiceIdIn(invoiceIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getInvoice().getId()));
+        Map<Long, CustomerBalance> balances = balanceRepo.findAllById(
+                        invoices.stream().map(i -> i.getCustomer().getId()).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(CustomerBalance::getCustomerId, Function.identity()));
+
+        CompletionService<CachedPdf> renders = new ExecutorCompletionService<>(executor);
+        List<Future<CachedPdf>> pending = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            pending.add(renders.submit(() -> render(
+                    invoice,
+                    items.getOrDefault(invoice.getId(), List.of()),
+                    balances.get(invoice.getCustomer().getId()))));
+        }
+
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                Future<CachedPdf> done = renders.take();
+                try {
+                    CachedPdf pdf = done.get();
+                    zip.putNextEntry(new ZipEntry(pdf.fileName()));
+                    zip.write(pdf.content());
+                    zip.closeEntry();
+                    progress.completed.incrementAndGet();
+                } catch (ExecutionException e) {
+                    progress.failed.incrementAndGet();
+                    log.warn("Export {} skipped an invoice", progress.exportId, e.getCause());
+                }
+            }
+        } finally {
+            // Client went away or the archive failed: stop outstanding renders
+            pending.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private CachedPdf render(Invoice invoice, List<InvoiceItem> items, CustomerBalance balance) throws Exception {
+        long paid = balance != null ? balance.getTotalPaid() : 0;
+        long outstanding = balance != null ? balance.getOutstanding() : 0;
+        PdfVersion version = new PdfVersion(
+                invoice.getId(), invoice.getCustomer().getId(), balance != null ? balance.getChangeVersion() : 0L);
+
+        CachedPdf cached = cache.get(version);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] content = pdfService.renderInvoicePdf(invoice, items, paid, outstanding);
+        return new CachedPdf(version, invoice.getInvoiceNumber() + ".pdf", content, Instant.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Progress {
+
+        final String exportId;
+        final List<Long> invoiceIds;
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final Instant startedAt = Instant.now();
+        /** Claimed once, by the one stream that writes the export or by expiry. */
+        final AtomicBoolean claimed = new AtomicBoolean();
+        volatile String state = "PENDING";
+        volatile Instant finishedAt;
+
+        Progress(String exportId, List<Long> invoiceIds) {
+            this.exportId = exportId;
+            this.invoiceIds = invoiceIds;
+        }
+
+        ExportProgress snapshot() {
+            return new ExportProgress(exportId, state, invoiceIds.size(),
+                    completed.get(), failed.get(), startedAt, finishedAt);
+        }
+    }
+}
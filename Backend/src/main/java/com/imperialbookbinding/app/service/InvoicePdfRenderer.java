@@ -0,0 +1,263 @@
+package com.imperialbookbinding.app.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.imperialbookbinding.app.cache.LruCache;
+import com.imperialbookbinding.app.dto.CachedPdf;
+import com.imperialbookbinding.app.dto.PdfJobStatus;
+import com.imperialbookbinding.app.dto.PdfRenderStats;
+import com.imperialbookbinding.app.dto.PdfVersion;
+import com.imperialbookbinding.app.entity.CustomerBalance;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.event.BalanceChangedEvent;
+import com.imperialbookbinding.app.event.InvoiceCreatedEvent;
+import com.imperialbookbinding.app.repository.InvoiceItemRepository;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders invoice PDFs into {@link InvoicePdfCache}. New invoices are
+ * pre-rendered on a small bounded pool once they commit, and cached PDFs
+ * are re-rendered after a payment or invoice moves the customer's balance.
+ * At most one render per invoice is in flight: a download that finds a
+ * queued job runs it itself, and one that finds a running job waits for it.
+ * When the queue is full, background work is dropped and downloads render
+ * on demand.
+ */
+@Service
+public class InvoicePdfRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePdfRenderer.class);
+
+    enum State { QUEUED, RUNNING, DONE, FAILED, REJECTED }
+
+    private final InvoiceRepository invoiceRepo;
+    private final InvoiceItemRepository itemRepo;
+    private final CustomerBalanceService balanceService;
+    private final InvoicePdfService pdfService;
+    private final InvoicePdfCache cache;
+
+    private final boolean prerenderEnabled;
+    private final Duration waitTimeout;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<Long, RenderJob> jobs = new ConcurrentHashMap<>();
+    private final LruCache<Long, PdfJobStatus> finished = new LruCache<>(256);
+    private final AtomicLong rejected = new AtomicLong();
+
+    public InvoicePdfRenderer(
+            InvoiceRepository invoiceRepo,
+            InvoiceItemRepository itemRepo,
+            CustomerBalanceService balanceService,
+            InvoicePdfService pdfService,
+            InvoicePdfCache cache,
+            @Value("${app.pdf.prerender.enabled:true}") boolean prerenderEnabled,
+            @Value("${app.pdf.render.threads:2}") int threads,
+            @Value("${app.pdf.render.queue-capacity:100}") int queueCapacity,
+            @Value("${app.pdf.render.wait-timeout:30s}") Duration waitTimeout) {
+        this.invoiceRepo = invoiceRepo;
+        this.itemRepo = itemRepo;
+        this.balanceService = balanceService;
+        this.pdfService = pdfService;
+        this.cache = cache;
+        this.prerenderEnabled = prerenderEnabled;
+        this.waitTimeout = waitTimeout;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "pdf-render-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * The PDF for {@code version}: from the cache, from the render already in
+     * flight for this invoice, or rendered on the calling thread.
+     */
+    public CachedPdf getPdf(PdfVersion version) throws Exception {
+        while (true) {
+            CachedPdf cached = cache.get(version);
+            if (cached != null) {
+                return cached;
+            }
+
+            RenderJob job = jobs.computeIfAbsent(version.invoiceId(), RenderJob::new);
+            job.run();
+
+            CachedPdf pdf;
+            try {
+                pdf = job.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            // A job that started before the latest change committed renders
+            // an older balance; go round again for a fresh one
+            if (pdf.version().balanceVersion() >= version.balanceVersion()) {
+                return pdf;
+            }
+        }
+    }
+
+    /**
+     * Queues a background render unless one is already waiting for this
+     * invoice. Returns false when the queue is full.
+     */
+    public boolean prerender(Long invoiceId) {
+        RenderJob fresh = new RenderJob(invoiceId);
+        RenderJob job = jobs.compute(invoiceId,
+                (id, existing) -> existing != null && existing.state.get() == State.QUEUED ? existing : fresh);
+        if (job != fresh) {
+            return true;
+        }
+        try {
+            executor.execute(fresh::run);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            // Left claimable: a download already holding this job still runs it
+            jobs.remove(invoiceId, fresh);
+            finished.put(invoiceId, fresh.status(State.REJECTED));
+            return false;
+        }
+    }
+
+    public PdfJobStatus status(Long invoiceId) {
+        RenderJob job = jobs.get(invoiceId);
+        if (job != null) {
+            return job.status(job.state.get());
+        }
+        PdfJobStatus last = finished.get(invoiceId);
+        return last != null ? last : new PdfJobStatus(invoiceId, null, "NONE", null, null, null, null);
+    }
+
+    public PdfRenderStats stats() {
+        return new PdfRenderStats(
+                executor.getCorePoolSize(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getActiveCount(),
+                executor.getCompletedTaskCount(),
+                rejected.get());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onInvoiceCreated(InvoiceCreatedEvent event) {
+        if (prerenderEnabled) {
+            prerender(event.invoiceId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (event.customerId() == null) {
+            cache.clear();
+            return;
+        }
+        List<Long> stale = cache.evictCustomer(event.customerId());
+        if (prerenderEnabled) {
+            stale.forEach(this::prerender);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CachedPdf render(Long invoiceId) throws Exception {
+        PdfVersion version = invoiceRepo.findPdfVersion(invoiceId)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+        Invoice invoice = invoiceRepo.findById(invoiceId)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+
+        List<InvoiceItem> items = itemRepo.findByInvoiceId(invoiceId);
+
+        CustomerBalance balance = balanceService.get(version.customerId());
+
+        byte[] content = pdfService.renderInvoicePdf(
+                invoice, items, balance.getTotalPaid(), balance.getOutstanding()
+        );
+
+        return new CachedPdf(version, invoice.getInvoiceNumber() + ".pdf", content, Instant.now());
+    }
+
+    private final class RenderJob {
+
+        final Long invoiceId;
+        final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+        final CompletableFuture<CachedPdf> result = new CompletableFuture<>();
+        final Instant queuedAt = Instant.now();
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile PdfVersion version;
+        volatile String error;
+
+        RenderJob(Long invoiceId) {
+            this.invoiceId = invoiceId;
+        }
+
+        /** Renders unless another thread has already claimed this job. */
+        void run() {
+            if (!state.compareAndSet(State.QUEUED, State.RUNNING)) {
+                return;
+            }
+            startedAt = Instant.now();
+            CachedPdf pdf = null;
+            Exception failure = null;
+            try {
+                pdf = render(invoiceId);
+                version = pdf.version();
+                cache.put(pdf);
+            } catch (Exception e) {
+                failure = e;
+                error = e.getMessage();
+                log.warn("Rendering PDF for invoice {} failed", invoiceId, e);
+            }
+            finishedAt = Instant.now();
+            State outcome = failure == null ? State.DONE : State.FAILED;
+            state.set(outcome);
+
+            // Leave the map before waking waiters so a retry starts a new job
+            jobs.remove(invoiceId, this);
+            finished.put(invoiceId, status(outcome));
+
+            if (failure == null) {
+                result.complete(pdf);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        PdfJobStatus status(State current) {
+            PdfVersion v = version;
+            return new PdfJobStatus(invoiceId, v != null ? v.etag() : null, current.name(),
+                    queuedAt, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.imperialbookbinding.app.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.springframework.stereotype.Service;
 
 import com.imperialbookbinding.app.entity.Invoice;
 import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.money.Money;
 import com.lowagie.text.Document;
 import com.lowagie.text.Font;
 import com.lowagie.text.FontFactory;
@@ -19,16 +26,51 @@ import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class InvoicePdfService {
 
     private static final String BASE_PATH = "data/invoices/";
 
+    // Resolved once; fonts and widths are only read while rendering
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font BOLD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final float[] COLUMN_WIDTHS = {4, 1, 2, 2};
+
+    private static final int BUFFER_POOL_SIZE = 8;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    private final BlockingQueue<ByteArrayOutputStream> buffers = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+
+    private final Timer renderTimer;
+    private final DistributionSummary pdfSize;
+
+    public InvoicePdfService(MeterRegistry meters) {
+        this.renderTimer = Timer.builder("billing.pdf.render")
+                .description("Time to render one invoice PDF")
+                .publishPercentileHistogram()
+                .register(meters);
+        this.pdfSize = DistributionSummary.builder("billing.pdf.size")
+                .description("Size of rendered invoice PDFs")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    /**
+     * Renders the invoice and writes it to {@code data/invoices/}. Only used
+     * when a copy is explicitly archived; downloads are rendered in memory.
+     */
     public String generateInvoicePdf(
             Invoice invoice,
             List<InvoiceItem> items,
-            Double amountPaid,
-            Double balanceDue
+            long amountPaid,
+            long balanceDue
     ) throws Exception {
 
         Files.createDirectories(Paths.get(BASE_PATH));
@@ -36,51 +78,126 @@ public class InvoicePdfService {
         String fileName = invoice.getInvoiceNumber() + ".pdf";
         String filePath = BASE_PATH + fileName;
 
+        try (OutputStream out = new FileOutputStream(filePath)) {
+            renderInvoicePdf(invoice, items, amountPaid, balanceDue, out);
+        }
+
+        return filePath;
+    }
+
+    /**
+     * Renders the invoice into a pooled buffer and returns a copy of the
+     * bytes; nothing touches the disk.
+     */
+    public byte[] renderInvoicePdf(
+            Invoice invoice,
+            List<InvoiceItem> items,
+            long amountPaid,
+            long balanceDue
+    ) throws Exception {
+
+        ByteArrayOutputStream buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        }
+        try {
+            renderInvoicePdf(invoice, items, amountPaid, balanceDue, buffer);
+            return buffer.toByteArray();
+        } finally {
+            // Oversized buffers are dropped rather than pinned in the pool
+            if (buffer.size() <= MAX_POOLED_BUFFER_SIZE) {
+                buffer.reset();
+                buffers.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Renders the invoice straight into {@code out}, which is left open.
+     */
+    public void renderInvoicePdf(
+            Invoice invoice,
+            List<InvoiceItem> items,
+            long amountPaid,
+            long balanceDue,
+            OutputStream out
+    ) throws Exception {
+
+        CountingOutputStream counted = new CountingOutputStream(out);
+        Timer.Sample sample = Timer.start();
+        writePdf(invoice, items, amountPaid, balanceDue, counted);
+        sample.stop(renderTimer);
+        pdfSize.record(counted.count);
+    }
+
+    private void writePdf(
+            Invoice invoice,
+            List<InvoiceItem> items,
+            long amountPaid,
+            long balanceDue,
+            OutputStream out
+    ) throws Exception {
+
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, new FileOutputStream(filePath));
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
 
         document.open();
 
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-        Font bold = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-        Font normal = FontFactory.getFont(FontFactory.HELVETICA, 10);
-
         // Header
-        document.add(new Paragraph("Imperial Binding Works", titleFont));
-        document.add(new Paragraph("Book Binding & Finishing", normal));
+        document.add(new Paragraph("Imperial Binding Works", TITLE_FONT));
+        document.add(new Paragraph("Book Binding & Finishing", NORMAL_FONT));
         document.add(new Paragraph(" "));
-        document.add(new Paragraph("Invoice No: " + invoice.getInvoiceNumber(), bold));
-        document.add(new Paragraph("Date: " + invoice.getIssueDate(), normal));
-        document.add(new Paragraph("Customer: " + invoice.getCustomer().getName(), normal));
+        document.add(new Paragraph("Invoice No: " + invoice.getInvoiceNumber(), BOLD_FONT));
+        document.add(new Paragraph("Date: " + invoice.getIssueDate(), NORMAL_FONT));
+        document.add(new Paragraph("Customer: " + invoice.getCustomer().getName(), NORMAL_FONT));
         document.add(new Paragraph(" "));
 
         // Table
         PdfPTable table = new PdfPTable(4);
         table.setWidthPercentage(100);
-        table.setWidths(new float[]{4, 1, 2, 2});
+        table.setWidths(COLUMN_WIDTHS);
 
-        table.addCell(new PdfPCell(new Phrase("Description", bold)));
-        table.addCell(new PdfPCell(new Phrase("Qty", bold)));
-        table.addCell(new PdfPCell(new Phrase("Rate", bold)));
-        table.addCell(new PdfPCell(new Phrase("Amount", bold)));
+        table.addCell(new PdfPCell(new Phrase("Description", BOLD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Qty", BOLD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Rate", BOLD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Amount", BOLD_FONT)));
 
         for (InvoiceItem item : items) {
-            table.addCell(new Phrase(item.getDescription(), normal));
-            table.addCell(new Phrase(item.getQuantity().toString(), normal));
-            table.addCell(new Phrase(item.getRate().toString(), normal));
-            table.addCell(new Phrase(item.getAmount().toString(), normal));
+            table.addCell(new Phrase(item.getDescription(), NORMAL_FONT));
+            table.addCell(new Phrase(item.getQuantity().toString(), NORMAL_FONT));
+            table.addCell(new Phrase(Money.format(item.getRate()), NORMAL_FONT));
+            table.addCell(new Phrase(Money.format(item.getAmount()), NORMAL_FONT));
         }
 
         document.add(table);
         document.add(new Paragraph(" "));
 
-        document.add(new Paragraph("Total: ₹" + invoice.getSubtotal(), bold));
-        document.add(new Paragraph("Amount Paid: ₹" + amountPaid, normal));
-        document.add(new Paragraph("Balance Due: ₹" + balanceDue, bold));
+        document.add(new Paragraph("Total: ₹" + Money.format(invoice.getSubtotal()), BOLD_FONT));
+        document.add(new Paragraph("Amount Paid: ₹" + Money.format(amountPaid), NORMAL_FONT));
+        document.add(new Paragraph("Balance Due: ₹" + Money.format(balanceDue), BOLD_FONT));
 
         document.close();
+    }
 
-        return filePath;
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 }
-
@@ -0,0 +1,96 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.InvoiceSearchHit;
+import com.imperialbookbinding.app.dto.SearchIndexReport;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.InvoiceSearchRepository;
+
+/**
+ * Full-text search over invoices by customer name, notes and line
+ * descriptions. Documents are added by the invoice write paths in the
+ * same transaction as the invoice; {@link #rebuild()} recreates them all
+ * from the invoice tables.
+ */
+@Service
+public class InvoiceSearchService {
+
+    private final InvoiceSearchRepository searchRepo;
+    private final InvoiceRepository invoiceRepo;
+
+    public InvoiceSearchService(InvoiceSearchRepository searchRepo, InvoiceRepository invoiceRepo) {
+        this.searchRepo = searchRepo;
+        this.invoiceRepo = invoiceRepo;
+    }
+
+    /**
+     * Invoices containing every word of {@code text}, best match first.
+     * Each word also matches as a prefix, so "thes" finds "thesis";
+     * punctuation only separates words and is never FTS5 syntax.
+     */
+    @Transactional(readOnly = true)
+    public List<InvoiceSearchHit> search(String text, int page, int size) {
+        String query = toMatchQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<InvoiceSearchRepository.Match> matches = searchRepo.search(query, size, page * size);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, InvoiceResponse> rows = invoiceRepo.findResponses(
+                        matches.stream().map(InvoiceSearchRepository.Match::invoiceId).toList())
+                .stream()
+                .collect(Collectors.toMap(InvoiceResponse::id, Function.identity()));
+        List<InvoiceSearchHit> hits = new ArrayList<>(matches.size());
+        for (InvoiceSearchRepository.Match match : matches) {
+            InvoiceResponse row = rows.get(match.invoiceId());
+            if (row != null) {
+                hits.add(new InvoiceSearchHit(row, match.snippet()));
+            }
+        }
+        return hits;
+    }
+
+    @Transactional
+    public SearchIndexReport rebuild() {
+        long start = System.nanoTime();
+        int indexed = searchRepo.rebuild();
+        return new SearchIndexReport(indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Creates the index on first start and rebuilds it when it no longer
+     * matches the invoices table. Returns the rebuild, or {@code null} if
+     * none was needed.
+     */
+    @Transactional
+    public SearchIndexReport prepare() {
+        searchRepo.createIfMissing();
+        return searchRepo.isStale() ? rebuild() : null;
+    }
+
+    static String toMatchQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                // A one-letter prefix would expand to most of the vocabulary
+                terms.add('"' + word + '"' + (word.length() > 1 ? "*" : ""));
+            }
+        }
+        return String.join(" ", terms);
+    }
+}
@@ -1,17 +1,30 @@
 package com.imperialbookbinding.app.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.KeysetPage;
 import com.imperialbookbinding.app.entity.Customer;
 import com.imperialbookbinding.app.entity.Invoice;
 import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.event.InvoiceCreatedEvent;
+import com.imperialbookbinding.app.metrics.TransactionTimer;
+import com.imperialbookbinding.app.money.Money;
 import com.imperialbookbinding.app.repository.InvoiceItemRepository;
 import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.InvoiceSearchRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class InvoiceService {
@@ -20,22 +33,42 @@ public class InvoiceService {
     private final InvoiceItemRepository itemRepo;
     private final CustomerService customerService;
     private final InvoiceNumberService numberService;
-
+    private final CustomerBalanceService balanceService;
+    private final InvoiceSearchRepository searchRepo;
+    private final ChangeVersionService changes;
+    private final ApplicationEventPublisher events;
+    private final MeterRegistry meters;
+    private final DistributionSummary invoiceLines;
 
     public InvoiceService(
             InvoiceRepository invoiceRepo,
             InvoiceItemRepository itemRepo,
             CustomerService customerService,
-            InvoiceNumberService numberService) {
+            InvoiceNumberService numberService,
+            CustomerBalanceService balanceService,
+            InvoiceSearchRepository searchRepo,
+            ChangeVersionService changes,
+            ApplicationEventPublisher events,
+            MeterRegistry meters) {
         this.invoiceRepo = invoiceRepo;
         this.itemRepo = itemRepo;
         this.customerService = customerService;
 		this.numberService = numberService;
+        this.balanceService = balanceService;
+        this.searchRepo = searchRepo;
+        this.changes = changes;
+        this.events = events;
+        this.meters = meters;
+        this.invoiceLines = DistributionSummary.builder("billing.invoice.lines")
+                .description("Line items per created invoice")
+                .register(meters);
     }
 
     @Transactional
     public Invoice createInvoice(CreateInvoiceRequest request) {
 
+        TransactionTimer.start(meters, "billing.invoice.create");
+
         Customer customer = customerService.getById(request.customerId);
 
         Invoice invoice = new Invoice();
@@ -49,9 +82,8 @@ public class InvoiceService {
         invoice.setStatus("ISSUED");
         invoice.setNotes(request.notes);
 
-        invoice = invoiceRepo.save(invoice);
-
-        double subtotal = 0;
+        List<InvoiceItem> items = new ArrayList<>(request.items.size());
+        long subtotal = 0;
 
         for (CreateInvoiceRequest.Item itemReq : request.items) {
             InvoiceItem item = new InvoiceItem();
@@ -60,17 +92,37 @@ public class InvoiceService {
             item.setQuantity(itemReq.quantity);
             item.setRate(itemReq.rate);
 
-            double amount = itemReq.quantity * itemReq.rate;
+            long amount = Money.times(itemReq.rate, itemReq.quantity);
             item.setAmount(amount);
             subtotal += amount;
 
-            itemRepo.save(item);
+            items.add(item);
         }
 
+        // Totals are known up front, so the invoice row is written once
         invoice.setSubtotal(subtotal);
+        invoice.setChangeVersion(changes.next());
+        invoice = invoiceRepo.save(invoice);
+        itemRepo.insertAll(items);
+        searchRepo.add(List.of(invoice), items);
+        invoiceLines.record(items.size());
+
+        balanceService.recordInvoice(customer.getId(), subtotal);
+
+        events.publishEvent(new InvoiceCreatedEvent(invoice.getId(), customer.getId()));
+        return invoice;
+    }
 
-        // ✅ FINAL SAVE WITH CORRECT NUMBER
-        return invoiceRepo.save(invoice);
+    /**
+     * Invoices matching the filter, {@code limit} rows after the cursor.
+     * A null limit returns every matching row.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<InvoiceResponse> listInvoices(
+            InvoiceFilter filter, KeysetCursor after, boolean descending, Integer limit) {
+        List<InvoiceResponse> rows = invoiceRepo.findPage(
+                filter, after, descending, limit != null ? limit + 1 : null);
+        return KeysetPage.of(rows, limit, r -> new KeysetCursor(r.createdDate(), r.id()));
     }
 
 }
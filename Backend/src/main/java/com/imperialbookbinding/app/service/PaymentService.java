@@ -1,16 +1,25 @@
 package com.imperialbookbinding.app.service;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.KeysetPage;
+import com.imperialbookbinding.app.dto.PaymentFilter;
+import com.imperialbookbinding.app.dto.PaymentResponse;
 import com.imperialbookbinding.app.entity.Customer;
 import com.imperialbookbinding.app.entity.Invoice;
 import com.imperialbookbinding.app.entity.Payment;
+import com.imperialbookbinding.app.metrics.TransactionTimer;
+import com.imperialbookbinding.app.money.Money;
 import com.imperialbookbinding.app.repository.InvoiceRepository;
 import com.imperialbookbinding.app.repository.PaymentRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class PaymentService {
@@ -18,18 +27,35 @@ public class PaymentService {
     private final PaymentRepository paymentRepo;
     private final CustomerService customerService;
     private final InvoiceRepository invoiceRepo;
+    private final CustomerBalanceService balanceService;
+    private final ChangeVersionService changes;
+    private final MeterRegistry meters;
+    private final Counter amountReceived;
 
     public PaymentService(
             PaymentRepository paymentRepo,
             CustomerService customerService,
-            InvoiceRepository invoiceRepo) {
+            InvoiceRepository invoiceRepo,
+            CustomerBalanceService balanceService,
+            ChangeVersionService changes,
+            MeterRegistry meters) {
         this.paymentRepo = paymentRepo;
         this.customerService = customerService;
         this.invoiceRepo = invoiceRepo;
+        this.balanceService = balanceService;
+        this.changes = changes;
+        this.meters = meters;
+        this.amountReceived = Counter.builder("billing.payment.amount")
+                .description("Total of committed payments")
+                .baseUnit("rupees")
+                .register(meters);
     }
 
     @Transactional
-    public Payment recordPayment(Long customerId, Long invoiceId, Double amount, LocalDate paymentDate) {
+    public Payment recordPayment(Long customerId, Long invoiceId, long amount, LocalDate paymentDate) {
+
+        TransactionTimer.start(meters, "billing.payment.record",
+                () -> amountReceived.increment(Money.toRupees(amount)));
 
         Customer customer = customerService.getById(customerId);
 
@@ -44,7 +70,22 @@ public class PaymentService {
             payment.setInvoice(invoice);
         }
 
-        return paymentRepo.save(payment);
+        payment.setChangeVersion(changes.next());
+        Payment saved = paymentRepo.save(payment);
+        balanceService.recordPayment(customerId, amount);
+        return saved;
+    }
+
+    /**
+     * Payments matching the filter, {@code limit} rows after the cursor.
+     * A null limit returns every matching row.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PaymentResponse> listPayments(
+            PaymentFilter filter, KeysetCursor after, boolean descending, Integer limit) {
+        List<PaymentResponse> rows = paymentRepo.findPage(
+                filter, after, descending, limit != null ? limit + 1 : null);
+        return KeysetPage.of(rows, limit, r -> new KeysetCursor(r.paymentDate(), r.id()));
     }
 }
 
@@ -0,0 +1,187 @@
+package com.imperialbookbinding.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.WriteQueueStats;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional group commit for the write endpoints. When enabled, writes are
+ * handed to one thread that runs everything queued, up to
+ * {@code max-batch-size} and waiting at most {@code max-linger-ms} for
+ * company, inside a single transaction, so a burst of payments pays for one
+ * commit instead of one each. Each caller gets its own result once the
+ * group commits. If any write in a group fails, the group is rolled back
+ * and every write is retried in its own transaction, so one bad request
+ * only fails itself.
+ *
+ * <p>When disabled, or when called from inside a transaction, the write
+ * simply runs on the calling thread.
+ */
+@Service
+public class WriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteQueue.class);
+
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+
+    private final BlockingQueue<Write<?>> queue;
+    private final Thread writer;
+
+    private final AtomicLong groups = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong retriedGroups = new AtomicLong();
+
+    public WriteQueue(
+            PlatformTransactionManager txManager,
+            @Value("${app.write-queue.enabled:false}") boolean enabled,
+            @Value("${app.write-queue.max-batch-size:32}") int maxBatchSize,
+            @Value("${app.write-queue.max-linger-ms:2}") long maxLingerMillis,
+            @Value("${app.write-queue.capacity:1000}") int capacity) {
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+
+        if (enabled) {
+            writer = new Thread(this::drain, "write-queue");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Runs {@code work}, which should call transactional service methods,
+     * and returns its result. Blocks until the write has committed.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (!enabled
+                || Thread.currentThread() == writer
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        Write<T> write = new Write<>(work);
+        try {
+            queue.put(write);
+            return write.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public WriteQueueStats stats() {
+        return new WriteQueueStats(enabled, queue.size(), maxBatchSize,
+                TimeUnit.NANOSECONDS.toMillis(maxLingerNanos),
+                groups.get(), writes.get(), retriedGroups.get());
+    }
+
+    private void drain() {
+        List<Write<?>> group = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (group.size() < maxBatchSize) {
+                    Write<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                group.forEach(w -> w.result.completeExceptionally(
+                        new IllegalStateException("Write queue stopped")));
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Write<?>> group) {
+        groups.incrementAndGet();
+        writes.addAndGet(group.size());
+        try {
+            tx.executeWithoutResult(status -> group.forEach(Write::run));
+            group.forEach(Write::complete);
+            return;
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.debug("Write group of {} failed, retrying each on its own", group.size(), e);
+        }
+
+        retriedGroups.incrementAndGet();
+        for (Write<?> write : group) {
+            try {
+                tx.executeWithoutResult(status -> write.run());
+                write.complete();
+            } catch (RuntimeException e) {
+                write.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+        Write<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new IllegalStateException("Write queue stopped"));
+        }
+    }
+
+    private static final class Write<T> {
+
+        final Supplier<T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        T value;
+
+        Write(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            value = work.get();
+        }
+
+        void complete() {
+            result.complete(value);
+        }
+    }
+}
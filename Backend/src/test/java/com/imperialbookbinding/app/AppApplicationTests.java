@@ -1,10 +1,10 @@
 package com.imperialbookbinding.app;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class AppApplicationTests {
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+class AppApplicationTests extends ApplicationTestSupport {
 
 	@Test
 	void contextLoads() {
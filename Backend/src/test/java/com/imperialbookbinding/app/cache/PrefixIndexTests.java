@@ -0,0 +1,51 @@
+package com.imperialbookbinding.app.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTests {
+
+    @Test
+    void matchesFollowKeyOrderAndStopWhenAsked() {
+        PrefixIndex index = PrefixIndex.of(List.of(
+                new PrefixIndex.Entry("rao", 3),
+                new PrefixIndex.Entry("raghav", 1),
+                new PrefixIndex.Entry("rao", 2),
+                new PrefixIndex.Entry("rajan", 4),
+                new PrefixIndex.Entry("ravi", 5)));
+
+        assertThat(matches(index, "ra", 10)).containsExactly(1L, 4L, 2L, 3L, 5L);
+        assertThat(matches(index, "rao", 10)).containsExactly(2L, 3L);
+        assertThat(matches(index, "ra", 2)).containsExactly(1L, 4L);
+        assertThat(matches(index, "s", 10)).isEmpty();
+        assertThat(matches(PrefixIndex.EMPTY, "r", 10)).isEmpty();
+    }
+
+    @Test
+    void addingAndRemovingCopiesAndKeepsTheOriginal() {
+        PrefixIndex original = PrefixIndex.of(List.of(new PrefixIndex.Entry("meera", 1)));
+
+        PrefixIndex added = original.with("meena", 2).with("mehul", 3);
+        assertThat(added.with("meena", 2)).isSameAs(added);
+        assertThat(matches(added, "me", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(matches(original, "me", 10)).containsExactly(1L);
+
+        PrefixIndex removed = added.without("meera", 1);
+        assertThat(removed.without("meera", 1)).isSameAs(removed);
+        assertThat(matches(removed, "me", 10)).containsExactly(2L, 3L);
+        assertThat(removed.size()).isEqualTo(2);
+    }
+
+    private static List<Long> matches(PrefixIndex index, String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachMatch(prefix, id -> {
+            ids.add(id);
+            return ids.size() < limit;
+        });
+        return ids;
+    }
+}
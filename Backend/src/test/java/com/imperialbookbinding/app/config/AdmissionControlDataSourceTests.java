@@ -0,0 +1,67 @@
+package com.imperialbookbinding.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlDataSourceTests {
+
+    @Test
+    void neverHandsOutMoreConnectionsThanPermits() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(i -> mock(Connection.class));
+        AdmissionControlDataSource admitted = new AdmissionControlDataSource(pool, 2, 5_000);
+
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<?>> done = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            done.add(callers.submit(() -> {
+                try (Connection connection = admitted.getConnection()) {
+                    peak.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    Thread.sleep(2);
+                    open.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) {
+            f.get();
+        }
+        callers.shutdown();
+
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+        assertThat(admitted.inUse()).isZero();
+    }
+
+    @Test
+    void closingTwiceReturnsThePermitOnce() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(i -> mock(Connection.class));
+        AdmissionControlDataSource admitted = new AdmissionControlDataSource(pool, 1, 50);
+
+        Connection first = admitted.getConnection();
+        assertThatThrownBy(admitted::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        first.close();
+        first.close();
+
+        Connection second = admitted.getConnection();
+        assertThat(admitted.inUse()).isEqualTo(1);
+        second.close();
+    }
+}
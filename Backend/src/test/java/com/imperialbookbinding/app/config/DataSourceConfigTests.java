@@ -0,0 +1,84 @@
+package com.imperialbookbinding.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.CustomerWithBalance;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/data-source-config-tests.db?busy_timeout=5000")
+class DataSourceConfigTests extends ApplicationTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void readsProceedWhileAWriteTransactionIsOpen() throws Exception {
+        Customer existing = new Customer();
+        existing.setName("Committed");
+        customerService.create(existing);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO customers (name, created_at) VALUES ('Uncommitted', 0)");
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The writer holds the only write connection and SQLite's write lock
+            long start = System.nanoTime();
+            assertThat(customerService.getCustomersWithBalance())
+                    .extracting(CustomerWithBalance::name)
+                    .contains("Committed")
+                    .doesNotContain("Uncommitted");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        } finally {
+            release.countDown();
+        }
+        writer.get(10, TimeUnit.SECONDS);
+
+        assertThat(customerService.getCustomersWithBalance())
+                .extracting(CustomerWithBalance::name)
+                .contains("Uncommitted");
+    }
+
+    @Test
+    void databaseRunsInWalMode() {
+        assertThat(jdbc.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+    }
+
+    @Test
+    void readOnlyTransactionsCannotWrite() {
+        TransactionTemplate readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+
+        assertThatThrownBy(() -> readOnly.executeWithoutResult(status ->
+                jdbc.update("INSERT INTO customers (name, created_at) VALUES ('Sneaky', 0)")))
+                .isInstanceOf(DataAccessException.class);
+    }
+}
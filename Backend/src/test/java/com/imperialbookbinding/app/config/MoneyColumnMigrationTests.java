@@ -0,0 +1,113 @@
+package com.imperialbookbinding.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class MoneyColumnMigrationTests {
+
+    @TempDir
+    Path dir;
+
+    private HikariDataSource sqlite;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void openDatabase() {
+        sqlite = new HikariDataSource();
+        sqlite.setJdbcUrl("jdbc:sqlite:" + dir.resolve("billing.db"));
+        sqlite.setMaximumPoolSize(1);
+        jdbc = new JdbcTemplate(sqlite);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        sqlite.close();
+    }
+
+    @Test
+    void rupeeColumnsAreRebuiltAsPaise() throws Exception {
+        // The schema Hibernate generated while amounts were doubles
+        jdbc.execute("CREATE TABLE invoices (id integer, invoice_number varchar(255) not null unique,"
+                + " subtotal float not null, status varchar(255), primary key (id))");
+        jdbc.execute("CREATE INDEX idx_invoices_status ON invoices (status)");
+        jdbc.execute("CREATE TABLE invoice_items (id integer, invoice_id bigint,"
+                + " rate float not null, amount float not null, quantity integer not null, primary key (id))");
+        jdbc.execute("CREATE TABLE payments (id integer, amount_paid float not null, primary key (id))");
+        jdbc.update("INSERT INTO invoices VALUES (1, 'IB-2025-0001', 37.35, 'ISSUED')");
+        jdbc.update("INSERT INTO invoice_items VALUES (1, 1, 12.45, 37.35, 3)");
+        jdbc.update("INSERT INTO payments VALUES (1, 0.1 + 0.2)");
+
+        MoneyColumnMigration migration = new MoneyColumnMigration(sqlite, true);
+        assertThat(migration.migrate()).containsExactly("invoices", "invoice_items", "payments");
+
+        assertThat(jdbc.queryForList("SELECT typeof(subtotal) || ':' || subtotal FROM invoices", String.class))
+                .containsExactly("integer:3735");
+        assertThat(jdbc.queryForList("SELECT rate || ',' || amount || ',' || quantity FROM invoice_items",
+                String.class)).containsExactly("1245,3735,3");
+        assertThat(jdbc.queryForObject("SELECT amount_paid FROM payments", Long.class)).isEqualTo(30);
+
+        assertThat(jdbc.queryForList("SELECT name FROM sqlite_master WHERE tbl_name = 'invoices' AND type = 'index'",
+                String.class)).contains("idx_invoices_status");
+        List<String> sql = jdbc.queryForList("SELECT sql FROM sqlite_master WHERE name = 'invoices'", String.class);
+        assertThat(sql.get(0)).contains("subtotal bigint not null", "invoice_number varchar(255) not null unique");
+
+        // A second start finds nothing left to do
+        assertThat(migration.migrate()).isEmpty();
+
+        try (var files = Files.list(dir)) {
+            Path backup = files.filter(f -> f.getFileName().toString().startsWith("billing.db.before-paise-"))
+                    .findFirst().orElseThrow();
+            SQLiteDataSource copy = new SQLiteDataSource();
+            copy.setUrl("jdbc:sqlite:" + backup);
+            assertThat(new JdbcTemplate(copy).queryForObject("SELECT subtotal FROM invoices", Double.class))
+                    .isEqualTo(37.35);
+        }
+    }
+
+    @Test
+    void rupeeColumnsStopStartupUnlessTheMigrationIsEnabled() throws Exception {
+        jdbc.execute("CREATE TABLE payments (id integer, amount_paid float not null, primary key (id))");
+        jdbc.update("INSERT INTO payments VALUES (1, 12.5)");
+
+        assertThatThrownBy(() -> new MoneyColumnMigration(sqlite, false).afterPropertiesSet())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[payments]")
+                .hasMessageContaining("app.money.migrate-columns=true");
+        assertThat(jdbc.queryForObject("SELECT amount_paid FROM payments", Double.class)).isEqualTo(12.5);
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(f -> f.getFileName().toString())).noneMatch(f -> f.contains("before-paise"));
+        }
+    }
+
+    @Test
+    void outstandingIsRederivedFromTheRoundedTotals() throws Exception {
+        jdbc.execute("CREATE TABLE customer_balances (customer_id bigint not null, total_invoiced float not null,"
+                + " total_paid float not null, outstanding float not null, revision bigint, primary key (customer_id))");
+        jdbc.update("INSERT INTO customer_balances VALUES (7, 10.006, 3.334, 6.672, 2)");
+
+        assertThat(new MoneyColumnMigration(sqlite, true).migrate()).containsExactly("customer_balances");
+
+        assertThat(jdbc.queryForList("SELECT total_invoiced || ',' || total_paid || ',' || outstanding || ',' || revision"
+                + " FROM customer_balances", String.class)).containsExactly("1001,333,668,2");
+    }
+
+    @Test
+    void anEmptyDatabaseIsLeftAlone() throws Exception {
+        assertThat(new MoneyColumnMigration(sqlite, true).migrate()).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM sqlite_master", Integer.class)).isZero();
+    }
+}
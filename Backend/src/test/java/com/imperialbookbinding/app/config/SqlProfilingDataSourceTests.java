@@ -0,0 +1,116 @@
+package com.imperialbookbinding.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.imperialbookbinding.app.metrics.SqlProfile;
+import com.imperialbookbinding.app.metrics.SqlProfiler;
+
+class SqlProfilingDataSourceTests {
+
+    private SingleConnectionDataSource sqlite;
+
+    @BeforeEach
+    void openDatabase() {
+        sqlite = new SingleConnectionDataSource("jdbc:sqlite::memory:", true);
+        new JdbcTemplate(sqlite).execute("CREATE TABLE t (id INTEGER PRIMARY KEY, name TEXT)");
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        sqlite.destroy();
+    }
+
+    @Test
+    void repeatedShapesAreCountedAcrossParametersAndLiterals() {
+        SqlProfiler profiler = new SqlProfiler(3, 10_000, false);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, profiler));
+
+        profiler.begin();
+        for (int id = 1; id <= 3; id++) {
+            jdbc.queryForList("SELECT name FROM t WHERE id = ?", String.class, id);
+        }
+        jdbc.queryForList("SELECT name FROM t WHERE id = 1 AND name = 'a'", String.class);
+        jdbc.queryForList("SELECT name FROM t WHERE id = 2 AND name = 'b'", String.class);
+        SqlProfile profile = profiler.end();
+
+        assertThat(profile.statements()).isEqualTo(5);
+        assertThat(profile.nanos()).isPositive();
+        assertThat(profile.repeated(3)).containsOnlyKeys("SELECT name FROM t WHERE id = ?");
+        assertThat(profile.repeated(2)).containsEntry("SELECT name FROM t WHERE id = ? AND name = ?", 2);
+        assertThat(profile.slowQueries()).isEmpty();
+    }
+
+    @Test
+    void batchesAreNotRepeats() {
+        SqlProfiler profiler = new SqlProfiler(2, 10_000, true);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, profiler));
+        List<Integer> ids = IntStream.rangeClosed(1, 10).boxed().toList();
+
+        profiler.begin();
+        // Three chunks of the same insert
+        jdbc.batchUpdate("INSERT INTO t (id, name) VALUES (?, 'x')", ids, 4,
+                (ps, id) -> ps.setInt(1, id));
+        SqlProfile profile = profiler.end();
+
+        assertThat(profile.statements()).isEqualTo(3);
+        assertThat(profile.repeated(2)).isEmpty();
+    }
+
+    @Test
+    void strictModeThrowsOnTheThresholdRepeat() {
+        SqlProfiler profiler = new SqlProfiler(3, 10_000, true);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, profiler));
+
+        profiler.begin();
+        try {
+            jdbc.queryForList("SELECT name FROM t WHERE id = ?", String.class, 1);
+            jdbc.queryForList("SELECT name FROM t WHERE id = ?", String.class, 2);
+            assertThatThrownBy(() -> jdbc.queryForList("SELECT name FROM t WHERE id = ?", String.class, 3))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("N+1");
+        } finally {
+            profiler.end();
+        }
+    }
+
+    @Test
+    void slowQueriesAreRecordedAndFailInStrictMode() {
+        SqlProfiler lenient = new SqlProfiler(5, 0, false);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, lenient));
+        lenient.begin();
+        jdbc.queryForList("SELECT name FROM t", String.class);
+        assertThat(lenient.end().slowQueries())
+                .extracting(SqlProfile.SlowQuery::sql)
+                .containsExactly("SELECT name FROM t");
+
+        SqlProfiler strict = new SqlProfiler(5, 0, true);
+        JdbcTemplate strictJdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, strict));
+        strict.begin();
+        try {
+            assertThatThrownBy(() -> strictJdbc.queryForList("SELECT name FROM t", String.class))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Slow query");
+        } finally {
+            strict.end();
+        }
+    }
+
+    @Test
+    void nothingIsRecordedOutsideAProfile() {
+        SqlProfiler profiler = new SqlProfiler(1, 0, true);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlProfilingDataSource(sqlite, profiler));
+
+        assertThat(jdbc.queryForList("SELECT name FROM t", String.class)).isEmpty();
+        assertThat(profiler.end()).isNull();
+    }
+}
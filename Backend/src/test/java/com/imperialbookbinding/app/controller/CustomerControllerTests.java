@@ -0,0 +1,43 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@AutoConfigureMockMvc
+class CustomerControllerTests extends ApplicationTestSupport {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void badPagingOrSortingIsABadRequest() throws Exception {
+        customer("Paged");
+        for (String query : List.of("page=-1", "size=0", "size=-5", "sort=email", "direction=sideways")) {
+            mvc.perform(get("/api/customers/with-balance?" + query))
+                    .andExpect(status().isBadRequest());
+        }
+        mvc.perform(get("/api/customers/with-balance?page=0&size=1000&sort=balance&direction=desc"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void aStatementCursorWeDidNotIssueIsABadRequest() throws Exception {
+        Customer customer = customer("Statement");
+        for (String cursor : List.of("garbage", "2026-01-31:X:4:100", "2026-01-31:P:4", "2026-01-31:P:four:100")) {
+            mvc.perform(get("/api/customers/{id}/history", customer.getId()).param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+        mvc.perform(get("/api/customers/{id}/history", customer.getId()).param("cursor", "2026-01-31:P:4:100"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.imperialbookbinding.app.dto.BatchInvoiceResult;
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.Payment;
+import com.imperialbookbinding.app.service.InvoiceBatchService;
+import com.imperialbookbinding.app.service.InvoiceService;
+import com.imperialbookbinding.app.service.PaymentService;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@SpringBootTest(properties = "app.pdf.prerender.enabled=false")
+@AutoConfigureMockMvc
+class DeltaSyncTests extends ApplicationTestSupport {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private InvoiceBatchService batchService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void unchangedListsAnswerNotModified() throws Exception {
+        Customer customer = customer("Polling Press");
+        invoiceService.createInvoice(request(customer));
+
+        for (String url : List.of("/api/invoices", "/api/payments", "/api/customers")) {
+            MvcResult first = mvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andReturn();
+            String etag = first.getResponse().getHeader("ETag");
+            assertThat(etag).isEqualTo("\"" + first.getResponse().getHeader("X-Change-Version") + "\"");
+
+            mvc.perform(get(url).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        MvcResult before = mvc.perform(get("/api/invoices")).andReturn();
+        paymentService.recordPayment(customer.getId(), null, 5000, null);
+        mvc.perform(get("/api/invoices").header("If-None-Match", before.getResponse().getHeader("ETag")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void sinceReturnsOnlyRowsWrittenAfterTheVersion() throws Exception {
+        Customer old = customer("Old Bindery");
+        invoiceService.createInvoice(request(old));
+        paymentService.recordPayment(old.getId(), null, 1000, null);
+        long since = version(mvc.perform(get("/api/invoices")).andReturn());
+
+        Customer added = customer("New Bindery");
+        Invoice single = invoiceService.createInvoice(request(added));
+        List<Long> batch = batchService.createInvoices(List.of(request(added), request(old))).stream()
+                .map(BatchInvoiceResult::invoiceId)
+                .toList();
+        Payment payment = paymentService.recordPayment(added.getId(), null, 2500, null);
+
+        MvcResult invoices = mvc.perform(get("/api/invoices").param("since", Long.toString(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(single.getId()))
+                .andExpect(jsonPath("$[1].id").value(batch.get(0)))
+                .andExpect(jsonPath("$[2].id").value(batch.get(1)))
+                .andReturn();
+        mvc.perform(get("/api/payments").param("since", Long.toString(since)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(payment.getId()));
+        mvc.perform(get("/api/customers").param("since", Long.toString(since)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(added.getId()));
+
+        long latest = version(invoices);
+        assertThat(latest).isGreaterThan(since);
+        mvc.perform(get("/api/invoices").param("since", Long.toString(latest)))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void eachWriteTakesAHigherVersion() {
+        Customer customer = customer("Versioned Works");
+        Invoice invoice = invoiceService.createInvoice(request(customer));
+        Payment payment = paymentService.recordPayment(customer.getId(), invoice.getId(), 100, null);
+
+        long customerVersion = stored("customers", customer.getId());
+        long invoiceVersion = stored("invoices", invoice.getId());
+        long paymentVersion = stored("payments", payment.getId());
+        assertThat(customerVersion).isPositive().isLessThan(invoiceVersion);
+        assertThat(invoiceVersion).isLessThan(paymentVersion);
+    }
+
+    private long stored(String table, Long id) {
+        return jdbc.queryForObject("SELECT change_version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    private static long version(MvcResult result) {
+        return Long.parseLong(result.getResponse().getHeader("X-Change-Version"));
+    }
+
+    private static CreateInvoiceRequest request(Customer customer) {
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Hard binding";
+        item.quantity = 2;
+        item.rate = 15000L;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        return request;
+    }
+}
@@ -0,0 +1,209 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.service.CustomerBalanceService;
+import com.imperialbookbinding.app.service.InvoicePdfCache;
+import com.imperialbookbinding.app.service.InvoicePdfExporter;
+import com.imperialbookbinding.app.service.InvoicePdfRenderer;
+import com.imperialbookbinding.app.service.InvoiceService;
+import com.imperialbookbinding.app.service.PaymentService;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@AutoConfigureMockMvc
+class InvoicePdfControllerTests extends ApplicationTestSupport {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private InvoicePdfCache pdfCache;
+    @Autowired
+    private InvoicePdfRenderer renderer;
+    @Autowired
+    private InvoicePdfExporter exporter;
+    @Autowired
+    private CustomerBalanceService balanceService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void conditionalGetAndInvalidationOnPayment() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Cached");
+        customer = customerService.create(customer);
+        Invoice invoice = invoice(customer);
+        String url = "/api/invoices/" + invoice.getId() + "/pdf";
+
+        String etag = mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        long hits = pdfCache.stats().hits();
+        mvc.perform(get(url)).andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertThat(pdfCache.stats().hits()).isEqualTo(hits + 1);
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        paymentService.recordPayment(customer.getId(), null, 1000, null);
+
+        String changed = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+
+        // A rebuild recreates the ledger row; the tag must not go back to an old value
+        jdbc.update("DELETE FROM customer_balances WHERE customer_id = ?", customer.getId());
+        balanceService.rebuild();
+        for (String old : List.of(etag, changed)) {
+            mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, old))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void newInvoicesArePrerenderedInTheBackground() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Prerendered");
+        customer = customerService.create(customer);
+        Invoice invoice = invoice(customer);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"DONE".equals(renderer.status(invoice.getId()).state())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(renderer.status(invoice.getId()).state()).isEqualTo("DONE");
+
+        long misses = pdfCache.stats().misses();
+        mvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")).andExpect(status().isOk());
+        assertThat(pdfCache.stats().misses()).isEqualTo(misses);
+    }
+
+    @Test
+    void exportStreamsOnePdfPerMatchingInvoice() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Exported");
+        customer = customerService.create(customer);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(invoice(customer).getInvoiceNumber() + ".pdf");
+        }
+
+        MvcResult started = mvc.perform(get("/api/invoices/pdf/export")
+                        .param("customerId", customer.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String exportId = started.getResponse().getHeader(InvoicePdfController.EXPORT_ID_HEADER);
+
+        byte[] zip = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                entries.add(entry.getName());
+                assertThat(new String(in.readAllBytes(), 0, 4)).isEqualTo("%PDF");
+            }
+        }
+        assertThat(entries).containsExactlyInAnyOrderElementsOf(expected);
+
+        mvc.perform(get("/api/invoices/pdf/export/" + exportId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("DONE"))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.completed").value(5));
+    }
+
+    @Test
+    void unfinishedExportsOutliveNewerOnes() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Long Export");
+        customer = customerService.create(customer);
+        invoice(customer);
+        InvoiceFilter filter = new InvoiceFilter(customer.getId(), null, null, null, null, null);
+
+        String first = exporter.start(filter);
+        for (int i = 0; i < 100; i++) {
+            exporter.write(exporter.start(filter), OutputStream.nullOutputStream());
+        }
+        assertThat(exporter.progress(first).state()).isEqualTo("PENDING");
+
+        exporter.write(first, OutputStream.nullOutputStream());
+        assertThat(exporter.progress(first).state()).isEqualTo("DONE");
+    }
+
+    @Test
+    void exportsThatNeverStreamExpireAndEachStreamsOnce() throws Exception {
+        Customer customer = customer("Abandoned Export");
+        invoice(customer);
+        InvoiceFilter filter = new InvoiceFilter(customer.getId(), null, null, null, null, null);
+
+        String abandoned = exporter.start(filter);
+        assertThat(exporter.expireUnstarted(Instant.now().plusSeconds(1))).isPositive();
+        assertThat(exporter.progress(abandoned).state()).isEqualTo("EXPIRED");
+        assertThatThrownBy(() -> exporter.write(abandoned, OutputStream.nullOutputStream()))
+                .hasMessage("Export not found");
+
+        String twice = exporter.start(filter);
+        AtomicReference<Throwable> second = new AtomicReference<>();
+        exporter.write(twice, new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (second.get() == null) {
+                    second.set(catchThrowable(() -> exporter.write(twice, OutputStream.nullOutputStream())));
+                }
+            }
+        });
+        assertThat(second.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(exporter.progress(twice).state()).isEqualTo("DONE");
+        assertThat(exporter.progress(twice).completed()).isEqualTo(1);
+    }
+
+    private Invoice invoice(Customer customer) {
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Binding";
+        item.quantity = 2;
+        item.rate = 4000L;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        return invoiceService.createInvoice(request);
+    }
+}
@@ -0,0 +1,71 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.service.InvoiceService;
+import com.imperialbookbinding.app.service.PaymentService;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@SpringBootTest(properties = {
+        "management.defaults.metrics.export.enabled=true",
+        "app.pdf.prerender.enabled=false"
+})
+@AutoConfigureMockMvc
+class MetricsEndpointTests extends ApplicationTestSupport {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private PaymentService paymentService;
+
+    @Test
+    void prometheusEndpointExposesBillingPoolAndHibernateMetrics() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Metrics");
+        customer = customerService.create(customer);
+
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Case binding";
+        item.quantity = 3;
+        item.rate = 15000L;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        Invoice invoice = invoiceService.createInvoice(request);
+        paymentService.recordPayment(customer.getId(), invoice.getId(), 20000, null);
+
+        mvc.perform(get("/api/invoices/" + invoice.getId() + "/pdf")).andExpect(status().isOk());
+        mvc.perform(get("/api/customers/with-balance")).andExpect(status().isOk());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("billing_invoice_create_seconds_count{outcome=\"committed\"} 1")
+                .contains("billing_payment_amount_rupees_total 200.0")
+                .contains("billing_invoice_numbers_issued_total 1.0")
+                .contains("billing_invoice_lines_count 1")
+                .contains("billing_pdf_render_seconds_bucket")
+                .contains("billing_pdf_size_bytes_bucket")
+                .contains("hikaricp_connections_acquire_seconds_count{pool=\"sqlite-writer\"}")
+                .contains("hikaricp_connections_acquire_seconds_count{pool=\"sqlite-reader\"}")
+                .contains("hibernate_statements_total")
+                .contains("http_server_requests_sql_statements_count{method=\"GET\",uri=\"/api/customers/with-balance\"} 1");
+    }
+}
@@ -0,0 +1,118 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.service.PaymentService;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+class PaymentControllerTests extends ApplicationTestSupport {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingStatementsDoNotGrowWithDistinctCustomers() throws Exception {
+        seedPayments(2);
+        long fewCustomers = statementsFor("/api/payments?limit=50", 2);
+
+        seedPayments(25);
+        long manyCustomers = statementsFor("/api/payments?limit=50", 27);
+
+        // The change version, then the page
+        assertThat(fewCustomers).isEqualTo(2);
+        assertThat(manyCustomers).isEqualTo(fewCustomers);
+    }
+
+    @Test
+    void pagesFollowTheNextCursorHeader() throws Exception {
+        seedPayments(5);
+
+        String cursor = mvc.perform(get("/api/payments?limit=3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andReturn().getResponse().getHeader(InvoiceController.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+
+        String last = mvc.perform(get("/api/payments?limit=3&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andReturn().getResponse().getHeader(InvoiceController.NEXT_CURSOR_HEADER);
+        assertThat(last).isNull();
+    }
+
+    @Test
+    void aCursorWeDidNotIssueIsABadRequest() throws Exception {
+        for (String url : List.of("/api/payments", "/api/invoices")) {
+            for (String cursor : List.of("garbage", "2026-01-31:", "2026-13-01:4", ":42")) {
+                mvc.perform(get(url).param("cursor", cursor).param("limit", "3"))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+    }
+
+    @Test
+    void amountsAreStoredAsPaiseAndListedAsRupees() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Wire format");
+        customer = customerService.create(customer);
+        paymentService.recordPayment(customer.getId(), null, 123457, null);
+
+        mvc.perform(get("/api/payments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].amount").value(1234.57));
+    }
+
+    private long statementsFor(String url, int expectedRows) throws Exception {
+        // Start from an empty persistence context so associations are not served from it
+        em.clear();
+        statistics.clear();
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedRows));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedPayments(int customers) {
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customer = customerService.create(customer);
+            paymentService.recordPayment(customer.getId(), null, 10000 + i, null);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.imperialbookbinding.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+import com.imperialbookbinding.app.support.DatasetGenerator;
+import com.imperialbookbinding.app.support.DatasetGenerator.Volumes;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statement budgets for the read endpoints, measured against a generated
+ * dataset. Each list is fetched at two sizes: a count that grows with the
+ * page is an N+1, and a count above the budget is a new round trip. The
+ * SQL profiler runs in strict mode, so a repeated statement fails the
+ * request outright.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.pdf.prerender.enabled=false",
+        "app.sql.profiler.strict=true",
+        "app.sql.profiler.slow-query-ms=5000"
+})
+@AutoConfigureMockMvc
+class QueryCountTests extends ApplicationTestSupport {
+
+    private static final Volumes VOLUMES = new Volumes(80, 600, 400);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void generateDataset(@Autowired ApplicationContext context) {
+        new DatasetGenerator(context).generate(VOLUMES);
+    }
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void customersWithBalance() throws Exception {
+        assertThat(statementsFor("/api/customers/with-balance?size=5", jsonPath("$.length()").value(5)))
+                .isEqualTo(1);
+        assertThat(statementsFor("/api/customers/with-balance", jsonPath("$.length()").value(VOLUMES.customers())))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void invoices() throws Exception {
+        // The change version, then the page
+        assertThat(statementsFor("/api/invoices?limit=5", jsonPath("$.length()").value(5)))
+                .isEqualTo(2);
+        assertThat(statementsFor("/api/invoices", jsonPath("$.length()").value(VOLUMES.invoices())))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void payments() throws Exception {
+        int payments = jdbc.queryForObject("SELECT COUNT(*) FROM payments", Integer.class);
+
+        assertThat(statementsFor("/api/payments?limit=5", jsonPath("$.length()").value(5)))
+                .isEqualTo(2);
+        assertThat(statementsFor("/api/payments", jsonPath("$.length()").value(payments)))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void invoicePdf() throws Exception {
+        Long largest = jdbc.queryForObject(
+                "SELECT invoice_id FROM invoice_items GROUP BY invoice_id ORDER BY COUNT(*) DESC LIMIT 1",
+                Long.class);
+        Long smallest = jdbc.queryForObject(
+                "SELECT invoice_id FROM invoice_items GROUP BY invoice_id ORDER BY COUNT(*) LIMIT 1",
+                Long.class);
+
+        // Version check, then the render: version, invoice with customer,
+        // items, the items' invoice reference and the balance
+        assertThat(statementsFor("/api/invoices/" + largest + "/pdf", status().isOk()))
+                .isEqualTo(6);
+        assertThat(statementsFor("/api/invoices/" + smallest + "/pdf", status().isOk()))
+                .isEqualTo(6);
+
+        // A cached copy only needs the version check
+        assertThat(statementsFor("/api/invoices/" + largest + "/pdf", status().isOk()))
+                .isEqualTo(1);
+    }
+
+    private long statementsFor(String url, ResultMatcher expected) throws Exception {
+        statistics.clear();
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(expected);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,40 @@
+package com.imperialbookbinding.app.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.imperialbookbinding.app.dto.PaymentRequest;
+import com.imperialbookbinding.app.dto.PaymentResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class MoneyTests {
+
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @Test
+    void rupeesRoundToTheNearestPaisa() {
+        assertThat(Money.ofRupees(0.1 + 0.2)).isEqualTo(30);
+        assertThat(Money.ofRupees(1234.565)).isEqualTo(123457);
+        assertThat(Money.ofRupees(-2.005)).isEqualTo(-201);
+        assertThat(Money.format(123450)).isEqualTo("1234.50");
+        assertThat(Money.format(-5)).isEqualTo("-0.05");
+    }
+
+    @Test
+    void lineAmountsRefuseToOverflow() {
+        assertThat(Money.times(1250, 3)).isEqualTo(3750);
+        assertThatThrownBy(() -> Money.times(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void jsonCarriesRupeesWhileFieldsHoldPaise() {
+        PaymentRequest request = json.readValue("{\"customerId\":1,\"amount\":1234.565}", PaymentRequest.class);
+        assertThat(request.amount()).isEqualTo(123457);
+
+        PaymentResponse response = new PaymentResponse(1L, 1L, "Customer", 10, null);
+        assertThat(json.writeValueAsString(response)).contains("\"amount\":0.1");
+    }
+}
@@ -0,0 +1,76 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.AgingBuckets;
+import com.imperialbookbinding.app.dto.AgingReport;
+import com.imperialbookbinding.app.dto.CustomerAging;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@Transactional
+class AgingReportServiceTests extends ApplicationTestSupport {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 6, 30);
+
+    @Autowired
+    private AgingReportService agingService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private InvoiceRepository invoiceRepo;
+
+    @Test
+    void paymentsSettleOldestInvoicesFirst() {
+        Customer slow = customer("Slow payer");
+        invoice(slow, AS_OF.minusDays(120), 40000);
+        invoice(slow, AS_OF.minusDays(75), 30000);
+        invoice(slow, AS_OF.minusDays(45), 20000);
+        invoice(slow, AS_OF.minusDays(10), 10000);
+        paymentService.recordPayment(slow.getId(), null, 50000, AS_OF.minusDays(5));
+        // After the report date: must not count
+        paymentService.recordPayment(slow.getId(), null, 100000, AS_OF.plusDays(1));
+        invoice(slow, AS_OF.plusDays(2), 99900);
+
+        Customer ahead = customer("Paid ahead");
+        invoice(ahead, AS_OF.minusDays(3), 5000);
+        paymentService.recordPayment(ahead.getId(), null, 8000, AS_OF.minusDays(1));
+
+        Customer prepaid = customer("Deposit only");
+        paymentService.recordPayment(prepaid.getId(), null, 2500, AS_OF.minusDays(1));
+
+        customer("Nothing owed");
+
+        AgingReport report = agingService.agingAsOf(AS_OF);
+
+        assertThat(report.customers()).extracting(CustomerAging::customerName)
+                .containsExactly("Slow payer", "Paid ahead", "Deposit only");
+
+        CustomerAging slowAging = report.customers().get(0);
+        assertThat(slowAging.buckets()).isEqualTo(new AgingBuckets(10000, 20000, 20000, 0, 50000));
+        assertThat(slowAging.unappliedCredit()).isZero();
+
+        assertThat(report.customers().get(1).buckets().total()).isZero();
+        assertThat(report.customers().get(1).unappliedCredit()).isEqualTo(3000);
+        assertThat(report.customers().get(2).unappliedCredit()).isEqualTo(2500);
+
+        assertThat(report.totals()).isEqualTo(new AgingBuckets(10000, 20000, 20000, 0, 50000));
+    }
+
+    private void invoice(Customer customer, LocalDate issued, long amount) {
+        Invoice invoice = new Invoice();
+        invoice.setCustomer(customer);
+        invoice.setIssueDate(issued);
+        invoice.setInvoiceNumber("T-" + customer.getId() + "-" + issued);
+        invoice.setSubtotal(amount);
+        invoiceRepo.save(invoice);
+    }
+}
@@ -0,0 +1,75 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.cache.LruCache.CacheStats;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+class CustomerCacheTests extends ApplicationTestSupport {
+
+    @Autowired
+    private CustomerCache cache;
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Test
+    void lookupsAreServedFromCacheUntilACustomerIsAdded() {
+        Customer customer = customer("Regular");
+
+        customerService.getById(customer.getId());
+        CacheStats before = cache.stats();
+        assertThat(customerService.getById(customer.getId()).getName()).isEqualTo("Regular");
+        assertThat(cache.stats().hits()).isEqualTo(before.hits() + 1);
+
+        int count = customerService.getAll().size();
+        long listHits = cache.listStats().hits();
+        assertThat(customerService.getAll()).hasSize(count);
+        assertThat(cache.listStats().hits()).isEqualTo(listHits + 1);
+
+        customer("Newcomer");
+        assertThat(customerService.getAll()).hasSize(count + 1)
+                .extracting(Customer::getName).contains("Newcomer");
+    }
+
+    @Test
+    void customersReadByARolledBackTransactionAreNotCached() {
+        Long id = tx.execute(status -> {
+            Customer ghost = customer("Ghost");
+            customerService.getById(ghost.getId());
+            status.setRollbackOnly();
+            return ghost.getId();
+        });
+
+        assertThat(cache.get(id)).isNull();
+        Customer real = customer("Real");
+        assertThat(customerService.getById(real.getId()).getName()).isEqualTo("Real");
+    }
+
+    @Test
+    void changingAReturnedCustomerLeavesTheCacheAlone() {
+        Customer customer = customer("Original");
+        customerService.getById(customer.getId()).setName("Scribbled");
+        customerService.getById(customer.getId()).setName("Scribbled again");
+        customerService.getAll().forEach(c -> c.setName("Scribbled"));
+
+        assertThat(customerService.getById(customer.getId()).getName()).isEqualTo("Original");
+        assertThat(customerService.getAll()).extracting(Customer::getName).contains("Original");
+    }
+
+    @Test
+    void aChangeWithoutAnIdDropsEveryCachedCustomer() {
+        Customer customer = customer("Bulk");
+        customerService.getById(customer.getId());
+        assertThat(cache.get(customer.getId())).isNotNull();
+
+        cache.onCustomerChanged(new CustomerChangedEvent(null));
+
+        assertThat(cache.get(customer.getId())).isNull();
+    }
+}
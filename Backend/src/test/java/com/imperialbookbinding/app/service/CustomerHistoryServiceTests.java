@@ -0,0 +1,86 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.CustomerHistory;
+import com.imperialbookbinding.app.dto.StatementCursor;
+import com.imperialbookbinding.app.dto.StatementEntry;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@Transactional
+class CustomerHistoryServiceTests extends ApplicationTestSupport {
+
+    @Autowired
+    private CustomerHistoryService historyService;
+    @Autowired
+    private CustomerBalanceService balanceService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private InvoiceRepository invoiceRepo;
+
+    @Test
+    void pagesMergeInvoicesAndPaymentsWithARunningBalance() {
+        Customer customer = new Customer();
+        customer.setName("Statement");
+        customer = customerService.create(customer);
+        Customer other = new Customer();
+        other.setName("Someone else");
+        other = customerService.create(other);
+
+        LocalDate today = LocalDate.now();
+        invoice(customer, today.minusDays(10), 50000, "A-1");
+        paymentService.recordPayment(customer.getId(), null, 20000, today.minusDays(9));
+        invoice(customer, today.minusDays(5), 30000, "A-2");
+        invoice(customer, today.minusDays(5), 12000, "A-3");
+        paymentService.recordPayment(customer.getId(), null, 10000, today.minusDays(5));
+        paymentService.recordPayment(other.getId(), null, 99900, today.minusDays(5));
+        invoice(customer, today, 8000, "A-4");
+        paymentService.recordPayment(customer.getId(), null, 15000, today);
+        paymentService.recordPayment(customer.getId(), null, 5000, today);
+
+        List<StatementEntry> lines = new ArrayList<>();
+        StatementCursor cursor = null;
+        int pages = 0;
+        do {
+            CustomerHistory page = historyService.getHistory(customer.getId(), cursor, 3);
+            assertThat(page.balance()).isEqualTo(50000);
+            lines.addAll(page.entries());
+            cursor = StatementCursor.parse(page.nextCursor());
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(lines).extracting(e -> e.type() + ":" + (e.debit() - e.credit()) + "=" + e.balance())
+                .containsExactly(
+                        "PAYMENT:-5000=50000",
+                        "PAYMENT:-15000=55000",
+                        "INVOICE:8000=70000",
+                        "PAYMENT:-10000=62000",
+                        "INVOICE:12000=72000",
+                        "INVOICE:30000=60000",
+                        "PAYMENT:-20000=30000",
+                        "INVOICE:50000=50000");
+    }
+
+    private void invoice(Customer customer, LocalDate issued, long amount, String number) {
+        Invoice invoice = new Invoice();
+        invoice.setCustomer(customer);
+        invoice.setIssueDate(issued);
+        invoice.setInvoiceNumber(number);
+        invoice.setSubtotal(amount);
+        invoiceRepo.save(invoice);
+        balanceService.recordInvoice(customer.getId(), amount);
+    }
+}
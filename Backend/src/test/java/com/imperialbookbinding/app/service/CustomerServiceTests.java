@@ -0,0 +1,98 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.CustomerWithBalance;
+import com.imperialbookbinding.app.dto.LedgerReport;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.CustomerBalance;
+import com.imperialbookbinding.app.repository.CustomerBalanceRepository;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@Transactional
+class CustomerServiceTests extends ApplicationTestSupport {
+
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private CustomerBalanceService balanceService;
+    @Autowired
+    private CustomerBalanceRepository balanceRepo;
+
+    @Test
+    void balancesAreAggregatedAndSortable() {
+        Customer small = customer("Small");
+        Customer big = customer("Big");
+        Customer settled = customer("Settled");
+
+        invoice(small, 2, 5000);
+        invoice(big, 10, 10000);
+        invoice(big, 1, 25000);
+        invoice(settled, 1, 30000);
+        paymentService.recordPayment(big.getId(), null, 20000, null);
+        paymentService.recordPayment(settled.getId(), null, 30000, null);
+
+        List<CustomerWithBalance> all = customerService.getCustomersWithBalance();
+        assertThat(all).extracting(CustomerWithBalance::name)
+                .containsExactly("Small", "Big", "Settled");
+        assertThat(all).extracting(CustomerWithBalance::balance)
+                .containsExactly(10000L, 105000L, 0L);
+
+        List<CustomerWithBalance> topDebtor = customerService.getCustomersWithBalance(
+                0, 1, "balance", Sort.Direction.DESC);
+        assertThat(topDebtor).extracting(CustomerWithBalance::name).containsExactly("Big");
+
+        List<CustomerWithBalance> secondPage = customerService.getCustomersWithBalance(
+                1, 2, "balance", Sort.Direction.DESC);
+        assertThat(secondPage).extracting(CustomerWithBalance::name).containsExactly("Settled");
+
+        assertThat(customerService.getCustomersWithBalance(null, null, "id", Sort.Direction.DESC))
+                .extracting(CustomerWithBalance::name).containsExactly("Settled", "Big", "Small");
+        assertThatThrownBy(() -> customerService.getCustomersWithBalance(null, null, "email", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ledgerTracksWritesAndRebuildsDrift() {
+        Customer customer = customer("Ledger");
+        invoice(customer, 3, 10000);
+        paymentService.recordPayment(customer.getId(), null, 12000, null);
+
+        assertThat(customerService.getBalance(customer.getId())).isEqualTo(18000);
+        assertThat(balanceService.verify().driftedCustomers()).isZero();
+
+        CustomerBalance row = balanceRepo.findById(customer.getId()).orElseThrow();
+        row.setOutstanding(99900);
+        balanceRepo.save(row);
+
+        LedgerReport drift = balanceService.verify();
+        assertThat(drift.drift()).singleElement()
+                .satisfies(d -> assertThat(d.difference()).isEqualTo(-81900));
+
+        balanceService.rebuild();
+        assertThat(balanceService.verify().driftedCustomers()).isZero();
+        assertThat(customerService.getBalance(customer.getId())).isEqualTo(18000);
+    }
+
+    private void invoice(Customer customer, int quantity, long rate) {
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Binding";
+        item.quantity = quantity;
+        item.rate = rate;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        invoiceService.createInvoice(request);
+    }
+}
@@ -0,0 +1,108 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.CustomerSuggestion;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@AutoConfigureMockMvc
+class CustomerTypeaheadTests extends ApplicationTestSupport {
+
+    @Autowired
+    private CustomerTypeahead typeahead;
+    @Autowired
+    private TransactionTemplate tx;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void leadingMatchesRankAboveLaterWords() {
+        Customer anita = customer("Anita Raoji", "+91 98450 12345");
+        Customer raoji = customer("Raoji Binders", "080-2222 0000");
+        Customer jose = customer("José Fernandes-Raoji", null);
+
+        assertThat(names(typeahead.suggest("raoji", 10)))
+                .containsExactly("Raoji Binders", "Anita Raoji", "José Fernandes-Raoji");
+        assertThat(names(typeahead.suggest("RAOJI", 2))).containsExactly("Raoji Binders", "Anita Raoji");
+        assertThat(typeahead.suggest("jose f", 10)).extracting(CustomerSuggestion::id).containsExactly(jose.getId());
+        assertThat(typeahead.suggest("fernandes raoji", 10)).extracting(CustomerSuggestion::id)
+                .containsExactly(jose.getId());
+        assertThat(typeahead.suggest("  ", 10)).isEmpty();
+
+        assertThat(typeahead.suggest("98450", 10)).containsExactly(
+                new CustomerSuggestion(anita.getId(), "Anita Raoji", "+91 98450 12345"));
+        assertThat(typeahead.suggest("+91 9845", 10)).extracting(CustomerSuggestion::id).containsExactly(anita.getId());
+        assertThat(typeahead.suggest("(080) 2222", 10)).extracting(CustomerSuggestion::id).containsExactly(raoji.getId());
+    }
+
+    @Test
+    void onlyCommittedCustomersAreSuggested() {
+        tx.executeWithoutResult(status -> {
+            customer("Rolled Back Press", null);
+            status.setRollbackOnly();
+        });
+        assertThat(typeahead.suggest("rolled", 10)).isEmpty();
+
+        Customer kept = customer("Committed Press", null);
+        assertThat(typeahead.suggest("committed", 10)).extracting(CustomerSuggestion::id)
+                .containsExactly(kept.getId());
+    }
+
+    @Test
+    void bulkChangesRebuildOnTheNextLookup() {
+        tx.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO customers (name, phone, created_at) VALUES (?, ?, ?)",
+                    "Imported Stationers", "99001 23456", Timestamp.valueOf(LocalDateTime.now()));
+            events.publishEvent(new CustomerChangedEvent(null));
+        });
+
+        assertThat(names(typeahead.suggest("import", 10))).containsExactly("Imported Stationers");
+        assertThat(names(typeahead.suggest("stationers", 10))).containsExactly("Imported Stationers");
+    }
+
+    @Test
+    void endpointReturnsOnlyIdNameAndPhone() throws Exception {
+        customer("Wire Typeahead Traders", "12345 67890");
+
+        mvc.perform(get("/api/customers/typeahead").param("q", "wire typ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Wire Typeahead Traders"))
+                .andExpect(jsonPath("$[0].phone").value("12345 67890"))
+                .andExpect(jsonPath("$[0].address").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+    }
+
+    private static List<String> names(List<CustomerSuggestion> suggestions) {
+        return suggestions.stream().map(CustomerSuggestion::name).toList();
+    }
+
+    private Customer customer(String name, String phone) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setPhone(phone);
+        customer.setAddress("1 Binding Street");
+        return customerService.create(customer);
+    }
+}
@@ -0,0 +1,104 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.imperialbookbinding.app.dto.BatchInvoiceResult;
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.repository.InvoiceItemRepository;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "app.invoice.batch.chunk-size=3")
+class InvoiceBatchServiceTests extends ApplicationTestSupport {
+
+    @Autowired
+    private InvoiceBatchService batchService;
+    @Autowired
+    private CustomerBalanceService balanceService;
+    @Autowired
+    private InvoiceRepository invoiceRepo;
+    @Autowired
+    private InvoiceItemRepository itemRepo;
+    @Autowired
+    private MeterRegistry meters;
+
+    @Test
+    void badEntriesFailAloneAndTheRestAreCreated() {
+        Customer first = customer("Monthly A");
+        Customer second = customer("Monthly B");
+
+        List<CreateInvoiceRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            requests.add(request(i % 2 == 0 ? first.getId() : second.getId(), i + 1));
+        }
+        requests.add(2, request(-1L, 1));
+        requests.add(5, request(first.getId(), 0));
+
+        DistributionSummary lines = meters.get("billing.invoice.lines").summary();
+        long linesBefore = lines.count();
+        List<BatchInvoiceResult> results = batchService.createInvoices(requests);
+
+        assertThat(results).hasSize(9);
+        assertThat(results).extracting(BatchInvoiceResult::index)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(results.get(2).error()).isEqualTo("Customer not found");
+        assertThat(results.get(5).error()).isEqualTo("Invoice has no items");
+
+        List<BatchInvoiceResult> created = results.stream()
+                .filter(r -> "CREATED".equals(r.status()))
+                .toList();
+        assertThat(created).hasSize(7);
+
+        List<Integer> numbers = created.stream()
+                .map(r -> Integer.parseInt(r.invoiceNumber().substring(r.invoiceNumber().lastIndexOf('-') + 1)))
+                .toList();
+        for (int i = 1; i < numbers.size(); i++) {
+            assertThat(numbers.get(i)).isEqualTo(numbers.get(i - 1) + 1);
+        }
+
+        long invoicedToFirst = 0;
+        for (BatchInvoiceResult result : created) {
+            Invoice invoice = invoiceRepo.findById(result.invoiceId()).orElseThrow();
+            assertThat(invoice.getInvoiceNumber()).isEqualTo(result.invoiceNumber());
+            assertThat(invoice.getIssueDate()).isEqualTo(LocalDate.now());
+            assertThat(itemRepo.findByInvoiceId(invoice.getId()))
+                    .hasSize((int) (invoice.getSubtotal() / 1000));
+            if (invoice.getCustomer().getId().equals(first.getId())) {
+                invoicedToFirst += invoice.getSubtotal();
+            }
+        }
+        assertThat(balanceService.get(first.getId()).getTotalInvoiced()).isEqualTo(invoicedToFirst);
+
+        assertThat(meters.get("billing.invoice.batch.chunk").tag("outcome", "committed").timer().count())
+                .isEqualTo(3);
+        assertThat(lines.count() - linesBefore).isEqualTo(7);
+    }
+
+    private CreateInvoiceRequest request(Long customerId, int lines) {
+        List<CreateInvoiceRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+            item.description = "Volume " + i;
+            item.quantity = 1;
+            item.rate = 1000L;
+            items.add(item);
+        }
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customerId;
+        request.items = items;
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.repository.InvoiceRepository;
+import com.imperialbookbinding.app.repository.InvoiceSequenceRepository;
+import com.imperialbookbinding.app.service.InvoiceNumberService.YearSequence;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+class InvoiceNumberServiceTests extends ApplicationTestSupport {
+
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private InvoiceNumberService numberService;
+    @Autowired
+    private InvoiceRepository invoiceRepo;
+    @Autowired
+    private InvoiceSequenceRepository sequenceRepo;
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Test
+    void rolledBackNumberIsIssuedAgain() {
+        Customer customer = customer("Rollback");
+
+        String discarded = tx.execute(status -> {
+            Invoice invoice = invoice(customer);
+            status.setRollbackOnly();
+            return invoice.getInvoiceNumber();
+        });
+        assertThat(invoiceRepo.findByInvoiceNumber(discarded)).isEmpty();
+
+        assertThat(invoice(customer).getInvoiceNumber()).isEqualTo(discarded);
+        assertThatThrownBy(numberService::nextInvoiceNumber)
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void concurrentInvoicesGetConsecutiveNumbers() throws Exception {
+        Customer customer = customer("Concurrent");
+        int before = numberService.reconcile().lastIssued();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Invoice>> created = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                created.add(pool.submit(() -> invoice(customer)));
+            }
+            List<Integer> numbers = new ArrayList<>();
+            for (Future<Invoice> f : created) {
+                numbers.add(sequence(f.get().getInvoiceNumber()));
+            }
+            assertThat(numbers).containsExactlyInAnyOrderElementsOf(
+                    IntStream.rangeClosed(before + 1, before + 20).boxed().toList());
+        } finally {
+            pool.shutdown();
+        }
+        int year = LocalDate.now().getYear();
+        assertThat(sequenceRepo.findById(year).orElseThrow().getLastNumber()).isEqualTo(before + 20);
+    }
+
+    @Test
+    void reconcileResumesAfterTheHighestNumberWithoutBackfilling() {
+        Customer customer = customer("Crashed");
+        int year = LocalDate.now().getYear();
+        int last = numberService.reconcile().lastIssued();
+
+        // Simulates an invoice committed by a run that died holding last + 1
+        Invoice orphan = new Invoice();
+        orphan.setCustomer(customer);
+        orphan.setIssueDate(LocalDate.now());
+        orphan.setInvoiceNumber(String.format("IB-%d-%04d", year, last + 2));
+        invoiceRepo.save(orphan);
+
+        YearSequence sequence = numberService.reconcile();
+        assertThat(sequence.lastIssued()).isEqualTo(last + 2);
+        assertThat(sequence.pendingReuse()).isZero();
+        assertThat(sequence(invoice(customer).getInvoiceNumber())).isEqualTo(last + 3);
+
+        // A sequence row ahead of the invoices wins as well
+        tx.executeWithoutResult(status -> sequenceRepo.advance(year, last + 10));
+        assertThat(numberService.reconcile().lastIssued()).isEqualTo(last + 10);
+        assertThat(sequence(invoice(customer).getInvoiceNumber())).isEqualTo(last + 11);
+    }
+
+    private static int sequence(String invoiceNumber) {
+        return Integer.parseInt(invoiceNumber.substring(invoiceNumber.lastIndexOf('-') + 1));
+    }
+
+    private Invoice invoice(Customer customer) {
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Binding";
+        item.quantity = 1;
+        item.rate = 2500L;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        return invoiceService.createInvoice(request);
+    }
+}
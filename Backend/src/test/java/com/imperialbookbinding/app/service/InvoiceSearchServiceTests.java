@@ -0,0 +1,116 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.InvoiceSearchHit;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@Transactional
+class InvoiceSearchServiceTests extends ApplicationTestSupport {
+
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private InvoiceBatchService batchService;
+    @Autowired
+    private InvoiceSearchService searchService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void matchesAreRankedAndCustomerNamesWeighMost() {
+        Customer jose = customer("José Fernandes");
+        Customer anita = customer("Anita Rao");
+        Invoice thesis = invoiceService.createInvoice(request(jose, null, "Thesis binding"));
+        Invoice leather = invoiceService.createInvoice(
+                request(anita, "Thesis for Jose, collect Friday", "Hard cover, leather", "Gold foil title"));
+        invoiceService.createInvoice(request(anita, null, "Spiral binding"));
+
+        assertThat(ids(searchService.search("jose thesis", 0, 10)))
+                .containsExactly(thesis.getId(), leather.getId());
+        assertThat(ids(searchService.search("leather gold-foil", 0, 10))).containsExactly(leather.getId());
+        assertThat(ids(searchService.search("THES", 0, 10))).hasSize(2);
+        assertThat(ids(searchService.search("lamination", 0, 10))).isEmpty();
+
+        InvoiceSearchHit hit = searchService.search("gold foil", 0, 10).get(0);
+        assertThat(hit.invoice().customerName()).isEqualTo("Anita Rao");
+        assertThat(hit.invoice().total()).isEqualTo(2 * 1500);
+        assertThat(hit.snippet()).contains("[Gold] [foil]");
+    }
+
+    @Test
+    void pagesDoNotOverlap() {
+        Customer customer = customer("Paging Press");
+        for (int i = 0; i < 5; i++) {
+            invoiceService.createInvoice(request(customer, null, "Register binding " + i));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            seen.addAll(ids(searchService.search("register", page, 2)));
+        }
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void batchCreatedInvoicesAreSearchable() {
+        Customer customer = customer("Batch Stationers");
+        batchService.createInvoices(List.of(
+                request(customer, null, "Saddle stitching"),
+                request(customer, "Lamination both sides", "Perfect binding")));
+
+        assertThat(searchService.search("saddle", 0, 10)).hasSize(1);
+        assertThat(searchService.search("lamination perfect", 0, 10)).hasSize(1);
+        assertThat(searchService.search("batch stationers", 0, 10)).hasSize(2);
+    }
+
+    @Test
+    void rebuildRestoresALostIndex() {
+        Invoice invoice = invoiceService.createInvoice(request(customer("Rebuild Traders"), null, "Case binding"));
+        jdbc.update("DELETE FROM invoice_search");
+        assertThat(searchService.search("case", 0, 10)).isEmpty();
+
+        assertThat(searchService.prepare()).isNotNull();
+        assertThat(ids(searchService.search("case", 0, 10))).containsExactly(invoice.getId());
+        assertThat(searchService.prepare()).isNull();
+    }
+
+    @Test
+    void queryTextIsNeverFtsSyntax() {
+        assertThat(InvoiceSearchService.toMatchQuery("gold-foil \"AND\" (x* OR")).isEqualTo(
+                "\"gold\"* \"foil\"* \"AND\"* \"x\" \"OR\"*");
+        assertThat(InvoiceSearchService.toMatchQuery("  -- ")).isEmpty();
+        assertThat(searchService.search("NEAR(", 0, 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<InvoiceSearchHit> hits) {
+        return hits.stream().map(hit -> hit.invoice().id()).toList();
+    }
+
+    private static CreateInvoiceRequest request(Customer customer, String notes, String... descriptions) {
+        List<CreateInvoiceRequest.Item> items = new ArrayList<>();
+        for (String description : descriptions) {
+            CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+            item.description = description;
+            item.quantity = 1;
+            item.rate = 1500L;
+            items.add(item);
+        }
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.notes = notes;
+        request.items = items;
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.imperialbookbinding.app.dto.CreateInvoiceRequest;
+import com.imperialbookbinding.app.dto.InvoiceFilter;
+import com.imperialbookbinding.app.dto.InvoiceResponse;
+import com.imperialbookbinding.app.dto.KeysetCursor;
+import com.imperialbookbinding.app.dto.KeysetPage;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Invoice;
+import com.imperialbookbinding.app.entity.InvoiceItem;
+import com.imperialbookbinding.app.repository.InvoiceItemRepository;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Transactional
+class InvoiceServiceTests extends ApplicationTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceServiceTests.class);
+
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private InvoiceItemRepository itemRepo;
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void keysetPagesCoverEveryMatchingInvoiceOnce() {
+        Customer first = customer("First");
+        Customer second = customer("Second");
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(invoice(first).getId());
+            invoice(second);
+        }
+
+        InvoiceFilter filter = new InvoiceFilter(first.getId(), null, null, "ISSUED", "IB-", null);
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<InvoiceResponse> page = invoiceService.listInvoices(filter, cursor, false, 3);
+            page.items().forEach(r -> seen.add(r.id()));
+            cursor = KeysetCursor.parse(page.nextCursor());
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(3);
+
+        List<InvoiceResponse> newest = invoiceService.listInvoices(filter, null, true, 2).items();
+        assertThat(newest).extracting(InvoiceResponse::id)
+                .containsExactly(expected.get(6), expected.get(5));
+
+        assertThat(invoiceService.listInvoices(
+                new InvoiceFilter(null, null, null, null, "XX-", null), null, false, null).items()).isEmpty();
+    }
+
+    /**
+     * Not a pass/fail timing check: logs insert time per line count for the
+     * batched path next to one-entity-per-line saves, for comparison.
+     */
+    @Test
+    void lineItemsAreInsertedAsOneBatch() {
+        Customer customer = customer("Bulk");
+
+        for (int lines : new int[] { 10, 100, 300, 1000 }) {
+            CreateInvoiceRequest request = request(customer, lines);
+
+            long start = System.nanoTime();
+            Invoice invoice = invoiceService.createInvoice(request);
+            long batched = System.nanoTime() - start;
+
+            assertThat(itemRepo.findByInvoiceId(invoice.getId())).hasSize(lines)
+                    .allSatisfy(item -> assertThat(item.getId()).isNotNull());
+            assertThat(invoice.getSubtotal()).isEqualTo(lines * 1250L);
+
+            start = System.nanoTime();
+            for (CreateInvoiceRequest.Item line : request.items) {
+                InvoiceItem item = new InvoiceItem();
+                item.setInvoice(invoice);
+                item.setDescription(line.description);
+                item.setQuantity(line.quantity);
+                item.setRate(line.rate);
+                item.setAmount(line.quantity * line.rate);
+                itemRepo.save(item);
+            }
+            em.flush();
+            long perEntity = System.nanoTime() - start;
+
+            log.info("{} lines: batched {} ms, per-entity save {} ms",
+                    lines, batched / 1_000_000, perEntity / 1_000_000);
+        }
+    }
+
+    private CreateInvoiceRequest request(Customer customer, int lines) {
+        List<CreateInvoiceRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+            item.description = "Signature " + i;
+            item.quantity = 5;
+            item.rate = 250L;
+            items.add(item);
+        }
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = items;
+        return request;
+    }
+
+    private Invoice invoice(Customer customer) {
+        CreateInvoiceRequest.Item item = new CreateInvoiceRequest.Item();
+        item.description = "Binding";
+        item.quantity = 1;
+        item.rate = 1000L;
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.customerId = customer.getId();
+        request.items = List.of(item);
+        return invoiceService.createInvoice(request);
+    }
+}
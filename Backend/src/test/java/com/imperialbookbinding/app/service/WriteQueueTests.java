@@ -0,0 +1,89 @@
+package com.imperialbookbinding.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.imperialbookbinding.app.dto.WriteQueueStats;
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.entity.Payment;
+import com.imperialbookbinding.app.support.ApplicationTestSupport;
+
+@SpringBootTest(properties = {
+        "app.write-queue.enabled=true",
+        "app.write-queue.max-batch-size=8",
+        "app.write-queue.max-linger-ms=200"
+})
+class WriteQueueTests extends ApplicationTestSupport {
+
+    @Autowired
+    private WriteQueue writes;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private CustomerBalanceService balanceService;
+
+    @Test
+    void burstOfPaymentsIsCommittedInGroups() throws Exception {
+        Customer customer = customer("Cheques");
+        WriteQueueStats before = writes.stats();
+
+        List<Future<Payment>> results = submit(20, i -> customer.getId());
+        for (Future<Payment> result : results) {
+            assertThat(result.get().getId()).isNotNull();
+        }
+
+        WriteQueueStats after = writes.stats();
+        assertThat(after.writes() - before.writes()).isEqualTo(20);
+        assertThat(after.groups() - before.groups()).isLessThan(20).isGreaterThanOrEqualTo(3);
+        assertThat(balanceService.get(customer.getId()).getTotalPaid()).isEqualTo(20000);
+    }
+
+    @Test
+    void aFailingWriteDoesNotTakeItsGroupDown() throws Exception {
+        Customer customer = customer("Mixed");
+        long retriedBefore = writes.stats().retriedGroups();
+
+        List<Future<Payment>> results = submit(6, i -> i == 3 ? -1L : customer.getId());
+
+        int failed = 0;
+        for (Future<Payment> result : results) {
+            try {
+                result.get();
+            } catch (Exception e) {
+                assertThat(e).hasRootCauseMessage("Customer not found");
+                failed++;
+            }
+        }
+        assertThat(failed).isEqualTo(1);
+        assertThat(writes.stats().retriedGroups()).isGreaterThan(retriedBefore);
+        assertThat(balanceService.get(customer.getId()).getTotalPaid()).isEqualTo(5000);
+    }
+
+    private List<Future<Payment>> submit(int count, IntFunction<Long> customerFor)
+            throws InterruptedException {
+        ExecutorService clerks = Executors.newFixedThreadPool(count);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Payment>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long customerId = customerFor.apply(i);
+            results.add(clerks.submit(() -> {
+                go.await();
+                return writes.execute(() -> paymentService.recordPayment(customerId, null, 1000, null));
+            }));
+        }
+        go.countDown();
+        clerks.shutdown();
+        return results;
+    }
+}
@@ -0,0 +1,69 @@
+package com.imperialbookbinding.app.support;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactories;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.test.context.support.TestPropertySourceUtils;
+
+import com.imperialbookbinding.app.entity.Customer;
+import com.imperialbookbinding.app.service.CustomerService;
+
+/**
+ * Base for tests that start the application. Each test class gets its own
+ * SQLite file under {@code target/}, named after the class and created and
+ * dropped with its context, so classes never see each other's rows.
+ * Subclasses add their own settings with
+ * {@code @SpringBootTest(properties = ...)}; those win over the defaults
+ * here, including the database URL.
+ */
+@SpringBootTest
+@ContextCustomizerFactories(ApplicationTestSupport.DatabasePerClass.class)
+public abstract class ApplicationTestSupport {
+
+    @Autowired
+    protected CustomerService customerService;
+
+    protected Customer customer(String name) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        return customerService.create(customer);
+    }
+
+    static class DatabasePerClass implements ContextCustomizerFactory {
+
+        @Override
+        public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                List<ContextConfigurationAttributes> configAttributes) {
+            String file = testClass.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+            return new Database("jdbc:sqlite:target/" + file + ".db");
+        }
+    }
+
+    record Database(String url) implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration config) {
+            MapPropertySource database = new MapPropertySource("testDatabase", Map.of(
+                    "spring.datasource.url", url,
+                    "spring.jpa.hibernate.ddl-auto", "create-drop"));
+            MutablePropertySources sources = context.getEnvironment().getPropertySources();
+            String inlined = TestPropertySourceUtils.INLINED_PROPERTIES_PROPERTY_SOURCE_NAME;
+            if (sources.contains(inlined)) {
+                sources.addAfter(inlined, database);
+            } else {
+                sources.addFirst(database);
+            }
+        }
+    }
+}
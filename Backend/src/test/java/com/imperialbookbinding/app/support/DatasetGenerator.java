@@ -0,0 +1,350 @@
+package com.imperialbookbinding.app.support;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.imperialbookbinding.app.AppApplication;
+import com.imperialbookbinding.app.event.CustomerChangedEvent;
+import com.imperialbookbinding.app.repository.InvoiceSequenceRepository;
+import com.imperialbookbinding.app.service.CustomerBalanceService;
+import com.imperialbookbinding.app.service.InvoiceNumberService;
+import com.imperialbookbinding.app.service.InvoiceSearchService;
+
+/**
+ * Fills an empty database with production-shaped data: a few customers
+ * account for most invoices, line counts and quantities are skewed towards
+ * small values, and payments trail their invoices by a few weeks, some
+ * partial and some on account. Rows go in as JDBC batches in a single
+ * transaction; the ledger, search index and invoice sequences are rebuilt
+ * afterwards.
+ *
+ * <p>From the command line, against a new file:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.imperialbookbinding.app.support.DatasetGenerator \
+ *     -Dexec.args="data/billing.db 5000 100000 80000"
+ * </pre>
+ * Arguments are the database file, then customers, invoices, payments and a
+ * random seed, all optional.
+ */
+public class DatasetGenerator {
+
+    public record Volumes(int customers, int invoices, int payments, long seed) {
+
+        public Volumes(int customers, int invoices, int payments) {
+            this(customers, invoices, payments, 42L);
+        }
+    }
+
+    public record Summary(int customers, int invoices, int items, int payments) {
+    }
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int HISTORY_DAYS = 730;
+
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Meera", "Arjun", "Kavya",
+        "Imran", "Sana", "Rahul", "Neha", "Farhan", "Divya", "Karthik", "Zoya"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Khan", "Iyer", "Patel", "Reddy", "Gupta", "Nair", "Singh",
+        "Qureshi", "Das", "Menon", "Joshi", "Ansari", "Rao", "Kapoor", "Bose"
+    };
+    private static final String[] BUSINESSES = {
+        "Press", "Publications", "Printers", "Stationers", "Book House", "School", "College", "Traders"
+    };
+    private static final String[] WORK = {
+        "Perfect binding", "Case binding", "Spiral binding", "Saddle stitching", "Lamination",
+        "Hard cover, cloth", "Hard cover, leather", "Thesis binding", "Register binding", "Gold foil title"
+    };
+    private static final String[] NOTES = {
+        "Urgent, collect Friday", "Deliver to college office", "Spine text in Hindi and English",
+        "Maroon rexine, gold lettering", "Customer supplied the paper", "Repeat of last year's order"
+    };
+    private static final long[] RATES = {500, 800, 1200, 1500, 2000, 2500, 3500, 4000, 6000, 7500, 12000, 15000, 25000, 40000};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final InvoiceSequenceRepository sequenceRepo;
+    private final InvoiceNumberService numberService;
+    private final CustomerBalanceService balanceService;
+    private final InvoiceSearchService searchService;
+    private final ApplicationEventPublisher events;
+
+    public DatasetGenerator(ApplicationContext context) {
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.tx = context.getBean(TransactionTemplate.class);
+        this.sequenceRepo = context.getBean(InvoiceSequenceRepository.class);
+        this.numberService = context.getBean(InvoiceNumberService.class);
+        this.balanceService = context.getBean(CustomerBalanceService.class);
+        this.searchService = context.getBean(InvoiceSearchService.class);
+        this.events = context;
+    }
+
+    public Summary generate(Volumes volumes) {
+        SplittableRandom random = new SplittableRandom(volumes.seed());
+        LocalDate today = LocalDate.now();
+
+        Summary summary = tx.execute(status -> {
+            long firstCustomer = nextId("customers");
+            long firstInvoice = nextId("invoices");
+            long firstPayment = nextId("payments");
+
+            insertCustomers(random, today, firstCustomer, volumes.customers());
+            GeneratedInvoices invoices = insertInvoices(
+                    random, today, firstCustomer, volumes.customers(), firstInvoice, volumes.invoices());
+            int payments = insertPayments(random, today, invoices, firstPayment, volumes.payments());
+
+            invoices.lastNumberByYear().forEach(sequenceRepo::advance);
+            events.publishEvent(new CustomerChangedEvent(null));
+            return new Summary(volumes.customers(), volumes.invoices(), invoices.items(), payments);
+        });
+
+        balanceService.rebuild();
+        searchService.rebuild();
+        numberService.reconcile();
+        return summary;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    private void insertCustomers(SplittableRandom random, LocalDate today, long firstId, int count) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            String person = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            boolean business = random.nextInt(3) > 0;
+            String name = business ? person + " " + BUSINESSES[random.nextInt(BUSINESSES.length)] : person;
+            String email = random.nextInt(4) > 0
+                    ? name.toLowerCase().replace(' ', '.').replace(",", "") + id + "@example.com"
+                    : null;
+            String phone = String.format("9%09d", random.nextLong(1_000_000_000L));
+            String address = (1 + random.nextInt(400)) + ", " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " Road";
+            LocalDateTime createdAt = today.minusDays(HISTORY_DAYS + random.nextInt(365)).atTime(LocalTime.NOON);
+
+            rows.add(new Object[] {id, name, email, phone, address, Timestamp.valueOf(createdAt)});
+            if (rows.size() == BATCH_SIZE) {
+                flush("INSERT INTO customers (id, name, email, phone, address, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                        rows, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP);
+            }
+        }
+        flush("INSERT INTO customers (id, name, email, phone, address, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                rows, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP);
+    }
+
+    private record GeneratedInvoices(
+            long firstId,
+            long[] customerIds,
+            LocalDate[] issueDates,
+            long[] subtotals,
+            int items,
+            Map<Integer, Integer> lastNumberByYear) {
+    }
+
+    private GeneratedInvoices insertInvoices(
+            SplittableRandom random, LocalDate today,
+            long firstCustomer, int customers, long firstId, int count) {
+
+        // Issue dates first, sorted, so numbers run in date order within a year
+        LocalDate[] issueDates = new LocalDate[count];
+        for (int i = 0; i < count; i++) {
+            issueDates[i] = today.minusDays(random.nextInt(HISTORY_DAYS));
+        }
+        Arrays.sort(issueDates);
+
+        long[] customerIds = new long[count];
+        long[] subtotals = new long[count];
+        Map<Integer, Integer> lastNumberByYear = existingLastNumbers();
+
+        List<Object[]> invoiceRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> itemRows = new ArrayList<>(BATCH_SIZE);
+        int items = 0;
+
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            long customerId = firstCustomer + customerIndex(random, customers);
+            LocalDate issueDate = issueDates[i];
+            int number = lastNumberByYear.merge(issueDate.getYear(), 1, Integer::sum);
+
+            int lines = 1 + geometric(random, 0.3, 59);
+            long subtotal = 0;
+            for (int l = 0; l < lines; l++) {
+                int quantity = (int) Math.max(1, Math.round(Math.exp(random.nextDouble() * Math.log(500))));
+                long rate = RATES[random.nextInt(RATES.length)];
+                long amount = quantity * rate;
+                subtotal += amount;
+                itemRows.add(new Object[] {id, WORK[random.nextInt(WORK.length)], quantity, rate, amount});
+                if (itemRows.size() == BATCH_SIZE) {
+                    flushItems(itemRows);
+                }
+            }
+            items += lines;
+
+            // One invoice in five carries a note
+            String note = random.nextInt(5) == 0 ? NOTES[random.nextInt(NOTES.length)] : null;
+            customerIds[i] = customerId;
+            subtotals[i] = subtotal;
+            LocalDateTime createdAt = issueDate.atTime(9 + random.nextInt(9), random.nextInt(60));
+            invoiceRows.add(new Object[] {
+                id, String.format("IB-%d-%04d", issueDate.getYear(), number), customerId,
+                Date.valueOf(issueDate), subtotal, note, "ISSUED", Timestamp.valueOf(createdAt)
+            });
+            if (invoiceRows.size() == BATCH_SIZE) {
+                flushInvoices(invoiceRows);
+            }
+        }
+        flushInvoices(invoiceRows);
+        flushItems(itemRows);
+
+        return new GeneratedInvoices(firstId, customerIds, issueDates, subtotals, items, lastNumberByYear);
+    }
+
+    private Map<Integer, Integer> existingLastNumbers() {
+        Map<Integer, Integer> last = new TreeMap<>();
+        jdbc.query("SELECT seq_year, last_number FROM invoice_sequence",
+                rs -> { last.put(rs.getInt(1), rs.getInt(2)); });
+        return last;
+    }
+
+    private int insertPayments(
+            SplittableRandom random, LocalDate today, GeneratedInvoices invoices, long firstId, int count) {
+
+        int invoiceCount = invoices.customerIds().length;
+        if (invoiceCount == 0) {
+            return 0;
+        }
+        long[] remaining = invoices.subtotals().clone();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        int inserted = 0;
+
+        for (int attempt = 0; inserted < count && attempt < count * 3; attempt++) {
+            // Older invoices are more likely to have been paid
+            int i = (int) (invoiceCount * Math.sqrt(random.nextDouble()) * 0.999);
+            i = invoiceCount - 1 - i;
+            if (remaining[i] <= 0) {
+                continue;
+            }
+            // Part payments are made in whole rupees
+            long amount = random.nextInt(10) < 6
+                    ? remaining[i]
+                    : Math.max(100, Math.round(remaining[i] * (0.2 + random.nextDouble() * 0.6) / 100) * 100);
+            remaining[i] -= amount;
+
+            LocalDate paidOn = invoices.issueDates()[i].plusDays(geometric(random, 0.05, 120));
+            if (paidOn.isAfter(today)) {
+                paidOn = today;
+            }
+            // About one payment in eight is taken on account rather than against an invoice
+            Long invoiceId = random.nextInt(8) == 0 ? null : invoices.firstId() + i;
+
+            rows.add(new Object[] {
+                firstId + inserted, invoices.customerIds()[i], invoiceId, amount,
+                Date.valueOf(paidOn), Timestamp.valueOf(paidOn.atTime(LocalTime.of(16, 0)))
+            });
+            inserted++;
+            if (rows.size() == BATCH_SIZE) {
+                flushPayments(rows);
+            }
+        }
+        flushPayments(rows);
+        return inserted;
+    }
+
+    /** The top tenth of customers get half of all invoices. */
+    private static int customerIndex(SplittableRandom random, int customers) {
+        int regulars = Math.max(1, customers / 10);
+        if (regulars == customers || random.nextBoolean()) {
+            return random.nextInt(regulars);
+        }
+        return regulars + random.nextInt(customers - regulars);
+    }
+
+    /** Failures before the first success, capped at {@code max}. */
+    private static int geometric(SplittableRandom random, double p, int max) {
+        int n = (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+        return Math.min(n, max);
+    }
+
+    private void flushInvoices(List<Object[]> rows) {
+        flush("""
+            INSERT INTO invoices (id, invoice_number, customer_id, issue_date, subtotal, notes, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """, rows, Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.DATE, Types.BIGINT,
+                Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP);
+    }
+
+    private void flushItems(List<Object[]> rows) {
+        flush("""
+            INSERT INTO invoice_items (invoice_id, description, quantity, rate, amount)
+            VALUES (?, ?, ?, ?, ?)
+            """, rows, Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.BIGINT, Types.BIGINT);
+    }
+
+    private void flushPayments(List<Object[]> rows) {
+        flush("""
+            INSERT INTO payments (id, customer_id, invoice_id, amount_paid, payment_date, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """, rows, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.DATE, Types.TIMESTAMP);
+    }
+
+    private void flush(String sql, List<Object[]> rows, int... types) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows, types);
+            rows.clear();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path database = Path.of(args.length > 0 ? args[0] : "data/billing.db");
+        Volumes volumes = new Volumes(
+                args.length > 1 ? Integer.parseInt(args[1]) : 1_000,
+                args.length > 2 ? Integer.parseInt(args[2]) : 20_000,
+                args.length > 3 ? Integer.parseInt(args[3]) : 15_000,
+                args.length > 4 ? Long.parseLong(args[4]) : 42L);
+
+        if (Files.exists(database)) {
+            throw new IllegalStateException(database + " already exists; generate into a new file");
+        }
+        if (database.getParent() != null) {
+            Files.createDirectories(database.getParent());
+        }
+
+        SpringApplication app = new SpringApplication(AppApplication.class);
+        try (ConfigurableApplicationContext context = app.run(
+                "--spring.datasource.url=jdbc:sqlite:" + database + "?busy_timeout=5000",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.web-application-type=none",
+                "--app.pdf.prerender.enabled=false")) {
+
+            long started = System.nanoTime();
+            Summary summary = new DatasetGenerator(context).generate(volumes);
+            System.out.printf("Generated %d customers, %d invoices (%d lines), %d payments into %s in %d ms%n",
+                    summary.customers(), summary.invoices(), summary.items(), summary.payments(),
+                    database, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}